@@ -0,0 +1,205 @@
+package com.warrantywalket.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Drives a running backend (MVC or backend-reactive) over HTTP and reports how many requests were
+// served, how many failed, and the latency percentiles. Unlike the JMH benchmarks this measures the
+// whole stack, so run both servers with the same heap (e.g. -Xmx350m) against the same database.
+//
+//   java -cp benchmarks.jar com.warrantywalket.benchmark.ApiLoadTest \
+//       --url http://localhost:8080 --token <jwt> --path /api/warranties --concurrency 500 --requests 20000
+//
+// --scan <image> posts the image to /api/warranties/scan instead of issuing GETs. With --hold-scans <n>
+// as well, n scans of the image are opened first and held while the GETs run; that shows whether slow
+// scans starve other requests (they do once n passes Tomcat's 200 platform threads, and should not with
+// VIRTUAL_THREADS_ENABLED=true).
+//
+// --mongo-uri <uri> also reports the Mongo write operations (inserts, updates and deletes) the run caused,
+// from serverStatus opcounters. They count server-wide, so point it at a server nothing else writes to.
+public class ApiLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        String token = options.get("token");
+        String path = options.getOrDefault("path", "/api/warranties");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        int total = Integer.parseInt(options.getOrDefault("requests", "10000"));
+        int holdScans = Integer.parseInt(options.getOrDefault("hold-scans", "0"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout-seconds", "60")));
+
+        if (token == null) {
+            System.err.println("--token is required (log in through /api/auth/login to get one)");
+            System.exit(1);
+        }
+
+        if (holdScans > 0 && !options.containsKey("scan")) {
+            System.err.println("--hold-scans needs --scan <image>");
+            System.exit(1);
+        }
+
+        Path image = options.containsKey("scan") ? Paths.get(options.get("scan")) : null;
+        byte[] imageBytes = image != null ? Files.readAllBytes(image) : null;
+
+        HttpRequest get = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(timeout)
+                .GET()
+                .build();
+        Supplier<HttpRequest> next = image != null && holdScans == 0
+                ? () -> scanRequest(baseUrl, token, image, imageBytes, timeout)
+                : () -> get;
+
+        MongoClient mongo = options.containsKey("mongo-uri") ? MongoClients.create(options.get("mongo-uri")) : null;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+
+        AtomicInteger scansOpen = new AtomicInteger();
+        AtomicInteger scansServed = new AtomicInteger();
+        AtomicInteger scansRejected = new AtomicInteger();
+        AtomicInteger scansFailed = new AtomicInteger();
+        if (holdScans > 0) {
+            // Held scans wait as long as the server keeps them, not just --timeout-seconds
+            for (int i = 0; i < holdScans; i++) {
+                scansOpen.incrementAndGet();
+                client.sendAsync(scanRequest(baseUrl, token, image, imageBytes, Duration.ofHours(1)),
+                                HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, failure) -> {
+                            scansOpen.decrementAndGet();
+                            if (failure != null || response.statusCode() >= 500) {
+                                scansFailed.incrementAndGet();
+                            } else if (response.statusCode() == 429) {
+                                scansRejected.incrementAndGet();
+                            } else {
+                                scansServed.incrementAndGet();
+                            }
+                        });
+            }
+            System.out.printf("holding %d scans open%n", holdScans);
+        }
+
+        // One in-flight request per permit, so concurrency is the number of open connections
+        Semaphore permits = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(total);
+        long[] latencies = new long[total];
+        AtomicInteger served = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long writesBefore = mongo != null ? writeOps(mongo) : 0;
+        HttpRequest first = next.get();
+        System.out.printf("%s %s x%d, %d concurrent%n", first.method(), first.uri(), total, concurrency);
+        long started = System.nanoTime();
+
+        for (int i = 0; i < total; i++) {
+            permits.acquire();
+            int slot = i;
+            long sent = System.nanoTime();
+            client.sendAsync(i == 0 ? first : next.get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies[slot] = System.nanoTime() - sent;
+                        if (failure != null || response.statusCode() >= 500) {
+                            errors.incrementAndGet();
+                        } else if (response.statusCode() == 429) {
+                            rejected.incrementAndGet();
+                        } else {
+                            served.incrementAndGet();
+                        }
+                        permits.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("served %d, rejected (429) %d, errors %d in %.1f s (%.0f req/s)%n",
+                served.get(), rejected.get(), errors.get(), seconds, total / seconds);
+        System.out.printf("latency ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), latencies[total - 1] / 1e6);
+
+        if (mongo != null) {
+            long writes = writeOps(mongo) - writesBefore;
+            System.out.printf("mongo writes: %d (%.2f per request)%n", writes, (double) writes / total);
+            mongo.close();
+        }
+
+        if (holdScans > 0) {
+            System.out.printf("held scans: %d still open, %d served, %d rejected (429), %d errors%n",
+                    scansOpen.get(), scansServed.get(), scansRejected.get(), scansFailed.get());
+            // Do not wait for the remaining scans
+            System.exit(0);
+        }
+    }
+
+    // Each scan gets a random trailer after the image data, so no two share a content hash and every
+    // one reaches OCR instead of the OCR result cache. Image decoders ignore bytes past the end marker.
+    private static HttpRequest scanRequest(String baseUrl, String token, Path image, byte[] imageBytes, Duration timeout) {
+        String boundary = "----load-test-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + image.getFileName() + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(imageBytes);
+        body.writeBytes(UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/warranties/scan"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private static long writeOps(MongoClient mongo) {
+        Document counters = mongo.getDatabase("admin")
+                .runCommand(new Document("serverStatus", 1))
+                .get("opcounters", Document.class);
+        return ((Number) counters.get("insert")).longValue()
+                + ((Number) counters.get("update")).longValue()
+                + ((Number) counters.get("delete")).longValue();
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    // --name value pairs
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
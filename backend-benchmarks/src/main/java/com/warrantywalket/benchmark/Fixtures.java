@@ -0,0 +1,86 @@
+package com.warrantywalket.benchmark;
+
+import com.warrantywalket.dto.WarrantyResponse;
+import com.warrantywalket.model.Warranty;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic sample data shared by the benchmarks
+public final class Fixtures {
+
+    public static final String[] DATES = {
+            "15/08/2024", "15-08-2024", "15.08.2024",
+            "2024/08/15", "2024-08-15", "2024.08.15",
+            "15/08/24", "15-08-24"
+    };
+
+    public static final String[] PERIODS = {"1 year", "6 months", "2 years", "90 days", "18 months"};
+
+    private Fixtures() {
+    }
+
+    public static List<Warranty> warranties(int count) {
+        Random random = new Random(42);
+        List<Warranty> warranties = new ArrayList<>(count);
+        LocalDate base = LocalDate.of(2023, 1, 1);
+
+        for (int i = 0; i < count; i++) {
+            Warranty warranty = new Warranty("user-" + (i % 10));
+            warranty.setId(String.format("%024x", i));
+            warranty.setInvoiceNumber("INV-" + (100000 + i));
+            warranty.setInvoiceDate(base.plusDays(random.nextInt(900)));
+            warranty.setSerialNumber("SN" + Long.toHexString(random.nextLong()).toUpperCase());
+            warranty.setModelNumber("MDL-" + random.nextInt(10000));
+            warranty.setAssetPrice(String.format("%,d.00", 500 + random.nextInt(150000)));
+            warranty.setWarrantyPeriod(PERIODS[i % PERIODS.length]);
+            warranty.setPaymentMethod(i % 2 == 0 ? "Card" : "Upi");
+            warranty.setMerchantName("Merchant " + (i % 50));
+            warranty.setProductName("Product " + i);
+            warranty.setImagePath("/app/uploads/" + i + ".png");
+            warranties.add(warranty);
+        }
+        return warranties;
+    }
+
+    public static List<WarrantyResponse> responses(int count) {
+        List<WarrantyResponse> responses = new ArrayList<>(count);
+        LocalDate today = LocalDate.now();
+
+        for (Warranty warranty : warranties(count)) {
+            WarrantyResponse response = new WarrantyResponse();
+            response.setId(warranty.getId());
+            response.setInvoiceNumber(warranty.getInvoiceNumber());
+            response.setInvoiceDate(warranty.getInvoiceDate());
+            response.setSerialNumber(warranty.getSerialNumber());
+            response.setModelNumber(warranty.getModelNumber());
+            response.setAssetPrice(warranty.getAssetPrice());
+            response.setWarrantyPeriod(warranty.getWarrantyPeriod());
+            response.setPaymentMethod(warranty.getPaymentMethod());
+            response.setMerchantName(warranty.getMerchantName());
+            response.setProductName(warranty.getProductName());
+            response.setExpiryDate(warranty.getInvoiceDate().plusYears(1));
+            response.setDaysRemaining(ChronoUnit.DAYS.between(today, response.getExpiryDate()));
+            response.setStatus("ACTIVE");
+            response.setImageUrl("/api/warranties/" + warranty.getId() + "/image");
+            response.setThumbnailUrl("/api/warranties/" + warranty.getId() + "/thumbnail");
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    // Stands in for Spring's @Value injection on beans created outside a context
+    public static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName, e);
+        }
+    }
+}
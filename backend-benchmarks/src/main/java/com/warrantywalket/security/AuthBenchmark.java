@@ -0,0 +1,143 @@
+package com.warrantywalket.security;
+
+import com.warrantywalket.benchmark.Fixtures;
+import com.warrantywalket.model.User;
+import com.warrantywalket.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// JWT generation/verification and the JwtAuthenticationFilter hot path.
+// Lives in the security package to call the filter's protected doFilterInternal.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider statelessProvider;
+
+    private Authentication authentication;
+    private String token;
+    private String statelessToken;
+
+    private JwtAuthenticationFilter lookupFilter;
+    private JwtAuthenticationFilter statelessFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest statelessRequest;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        uncachedProvider = provider(0, false);
+        cachedProvider = provider(10000, false);
+        statelessProvider = provider(10000, true);
+
+        CustomUserDetailsService userDetailsService = userDetailsService();
+        UserPrincipal principal = (UserPrincipal) userDetailsService.loadUserByUsername("bench-user");
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        token = cachedProvider.generateToken(authentication);
+        statelessToken = statelessProvider.generateToken(authentication);
+
+        lookupFilter = new JwtAuthenticationFilter(cachedProvider, userDetailsService, new SimpleMeterRegistry());
+        statelessFilter = new JwtAuthenticationFilter(statelessProvider, userDetailsService, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/warranties");
+        request.addHeader("Authorization", "Bearer " + token);
+        statelessRequest = new MockHttpServletRequest("GET", "/api/warranties");
+        statelessRequest.addHeader("Authorization", "Bearer " + statelessToken);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedProvider.generateToken(authentication);
+    }
+
+    // Full HMAC check and claims parse on every call
+    @Benchmark
+    public Claims verifyTokenUncached() {
+        return uncachedProvider.verifyToken(token);
+    }
+
+    @Benchmark
+    public Claims verifyTokenCached() {
+        return cachedProvider.verifyToken(token);
+    }
+
+    // Filter with a (cached) user lookup, the default mode
+    @Benchmark
+    public Object filterWithUserLookup() throws Exception {
+        lookupFilter.doFilterInternal(request, new MockHttpServletResponse(), chain);
+        Object result = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return result;
+    }
+
+    // Filter building the principal from claims only (auth.stateless.enabled=true)
+    @Benchmark
+    public Object filterStateless() throws Exception {
+        statelessFilter.doFilterInternal(statelessRequest, new MockHttpServletResponse(), chain);
+        Object result = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return result;
+    }
+
+    private JwtTokenProvider provider(int cacheEntries, boolean stateless) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        Fixtures.inject(provider, "jwtSecret", SECRET);
+        Fixtures.inject(provider, "jwtExpiration", 86400000L);
+        Fixtures.inject(provider, "cacheMaxEntries", cacheEntries);
+        Fixtures.inject(provider, "stateless", stateless);
+        Fixtures.inject(provider, "statelessExpiration", 900000L);
+        Fixtures.inject(provider, "denyList", new TokenDenyList());
+        provider.init();
+        return provider;
+    }
+
+    // Backed by an in-memory stand-in for the users collection
+    private CustomUserDetailsService userDetailsService() {
+        User user = new User("bench-user", "bench@example.com", "$2a$10$abcdefghijklmnopqrstuuAbCdEfGhIjKlMnOpQrStUvWxYz01234");
+        user.setId("652f1c2e9d3b4a0012345678");
+
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByUsername")) {
+                        return Optional.of(user);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        CustomUserDetailsService service = new CustomUserDetailsService(10000);
+        Fixtures.inject(service, "userRepository", repository);
+        Fixtures.inject(service, "cacheTtlMs", 300000L);
+        return service;
+    }
+}
@@ -0,0 +1,145 @@
+package com.warrantywalket.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warrantywalket.benchmark.Fixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// OCR time per image over a corpus of receipts, on the raw upload ("off") and after the Java
+// normalization stage at a few max-edge caps. Field accuracy is printed at the end of each trial:
+// expected fields come from <image>.json next to an image when present, otherwise from OCR on the raw
+// image. Needs python3, Pillow, pytesseract and Tesseract; -Dbench.ocr.corpus points at the receipts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class ImageNormalizationBenchmark {
+
+    @Param({"off", "1600", "2000", "2600"})
+    public String maxEdge;
+
+    private WarrantyService warrantyService;
+    private ImageNormalizer normalizer;
+    private OcrWorkerPool workerPool;
+    private List<Path> corpus;
+    private List<Map<String, String>> expected;
+    private int next;
+    private long fieldsExpected;
+    private long fieldsMatched;
+
+    @Setup
+    public void setUp() throws IOException {
+        String pythonPath = System.getProperty("bench.ocr.python", "python3");
+        String scriptPath = System.getProperty("bench.ocr.script", "../ocr_service.py");
+        Path corpusDir = Paths.get(System.getProperty("bench.ocr.corpus", "../uploads"));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        // A single worker, so the numbers are per image rather than per pool
+        workerPool = new OcrWorkerPool();
+        Fixtures.inject(workerPool, "pythonPath", pythonPath);
+        Fixtures.inject(workerPool, "scriptPath", scriptPath);
+        Fixtures.inject(workerPool, "enabled", true);
+        Fixtures.inject(workerPool, "poolSize", 1);
+        Fixtures.inject(workerPool, "requestTimeoutMs", 120000L);
+        Fixtures.inject(workerPool, "acquireTimeoutMs", 120000L);
+        Fixtures.inject(workerPool, "meterRegistry", meterRegistry);
+        workerPool.warmUp();
+
+        OcrService ocrService = new OcrService();
+        Fixtures.inject(ocrService, "workerPool", workerPool);
+        Fixtures.inject(ocrService, "meterRegistry", meterRegistry);
+        Fixtures.inject(ocrService, "maxConcurrent", 1);
+        Fixtures.inject(ocrService, "maxConcurrentWaitMs", 120000L);
+        ocrService.registerMetrics();
+
+        normalizer = new ImageNormalizer();
+        Fixtures.inject(normalizer, "enabled", !"off".equals(maxEdge));
+        Fixtures.inject(normalizer, "maxEdge", "off".equals(maxEdge) ? 0 : Integer.parseInt(maxEdge));
+        Fixtures.inject(normalizer, "minEdge", 1000);
+
+        warrantyService = new WarrantyService();
+        Fixtures.inject(warrantyService, "ocrService", ocrService);
+        Fixtures.inject(warrantyService, "imageNormalizer", normalizer);
+        Fixtures.inject(warrantyService, "meterRegistry", meterRegistry);
+
+        try (Stream<Path> files = Files.list(corpusDir)) {
+            corpus = files
+                    .filter(file -> file.getFileName().toString().toLowerCase().matches(".*\\.(png|jpe?g)"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        if (corpus.isEmpty()) {
+            throw new IllegalStateException("No receipt images in " + corpusDir.toAbsolutePath());
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        expected = new ArrayList<>();
+        for (Path image : corpus) {
+            Path sidecar = image.resolveSibling(image.getFileName() + ".json");
+            expected.add(Files.exists(sidecar)
+                    ? objectMapper.readValue(sidecar.toFile(), new TypeReference<Map<String, String>>() { })
+                    : ocrService.extractBillDetails(image.toString()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        workerPool.shutdown();
+
+        // Only the ocr() trial compares fields
+        if (fieldsExpected > 0) {
+            System.out.printf("%nmax-edge=%s: %d images, field accuracy %d/%d (%.1f%%)%n",
+                    maxEdge, corpus.size(), fieldsMatched, fieldsExpected, 100.0 * fieldsMatched / fieldsExpected);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> ocr() {
+        int index = next++ % corpus.size();
+        Map<String, String> fields = warrantyService.runOcr(corpus.get(index));
+
+        for (Map.Entry<String, String> field : expected.get(index).entrySet()) {
+            fieldsExpected++;
+            if (field.getValue().equals(fields.get(field.getKey()))) {
+                fieldsMatched++;
+            }
+        }
+        return fields;
+    }
+
+    // The Java stage on its own: decode, resize, grayscale and PNG encode
+    @Benchmark
+    public Path normalizeOnly() throws IOException {
+        Path normalized = normalizer.normalize(corpus.get(next++ % corpus.size()));
+        if (normalized != null) {
+            Files.delete(normalized);
+        }
+        return normalized;
+    }
+}
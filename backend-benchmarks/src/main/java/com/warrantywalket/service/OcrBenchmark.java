@@ -0,0 +1,112 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.benchmark.Fixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Scans/sec (thrpt) and latency percentiles incl. p99 (sample) of the OCR worker pool versus one
+// python3 process per scan. Needs python3, Pillow, pytesseract and Tesseract on the machine; point it
+// elsewhere with -Dbench.ocr.python, -Dbench.ocr.script and -Dbench.ocr.image (default: the receipt
+// bundled under fixtures/).
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(OcrBenchmark.THREADS)
+@Fork(1)
+public class OcrBenchmark {
+
+    static final int THREADS = 4;
+
+    // "spawn" runs one process per scan; "pool-<n>" keeps n workers (pool size has no effect on spawn)
+    @Param({"spawn", "pool-2", "pool-4"})
+    public String mode;
+
+    private OcrService ocrService;
+    private OcrWorkerPool workerPool;
+    private String imagePath;
+    private Path extractedImage;
+
+    @Setup
+    public void setUp() throws IOException {
+        String pythonPath = System.getProperty("bench.ocr.python", "python3");
+        String scriptPath = System.getProperty("bench.ocr.script", "../ocr_service.py");
+        imagePath = System.getProperty("bench.ocr.image");
+        if (imagePath == null) {
+            extractedImage = extractFixture("/fixtures/receipt.png");
+            imagePath = extractedImage.toString();
+        }
+
+        boolean pooled = mode.startsWith("pool-");
+        int poolSize = pooled ? Integer.parseInt(mode.substring("pool-".length())) : 1;
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        workerPool = new OcrWorkerPool();
+        Fixtures.inject(workerPool, "pythonPath", pythonPath);
+        Fixtures.inject(workerPool, "scriptPath", scriptPath);
+        Fixtures.inject(workerPool, "enabled", pooled);
+        Fixtures.inject(workerPool, "poolSize", poolSize);
+        Fixtures.inject(workerPool, "requestTimeoutMs", 60000L);
+        Fixtures.inject(workerPool, "acquireTimeoutMs", 60000L);
+        Fixtures.inject(workerPool, "meterRegistry", meterRegistry);
+        workerPool.warmUp();
+
+        ocrService = new OcrService();
+        Fixtures.inject(ocrService, "pythonPath", pythonPath);
+        Fixtures.inject(ocrService, "scriptPath", scriptPath);
+        Fixtures.inject(ocrService, "workerPool", workerPool);
+        Fixtures.inject(ocrService, "meterRegistry", meterRegistry);
+        // As many OCR slots as pool workers, as in production; spawn mode gets one per benchmark thread so
+        // it still runs that many processes at once
+        Fixtures.inject(ocrService, "maxConcurrent", pooled ? poolSize : THREADS);
+        Fixtures.inject(ocrService, "maxConcurrentWaitMs", 60000L);
+        ocrService.registerMetrics();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        workerPool.shutdown();
+        if (extractedImage != null) {
+            Files.deleteIfExists(extractedImage);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> scan() {
+        return ocrService.extractBillDetails(imagePath);
+    }
+
+    // The OCR script needs a file path, and the fixture may be inside benchmarks.jar
+    private Path extractFixture(String resource) throws IOException {
+        Path file = Files.createTempFile("ocr-bench-", ".png");
+        try (InputStream in = OcrBenchmark.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture " + resource);
+            }
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+}
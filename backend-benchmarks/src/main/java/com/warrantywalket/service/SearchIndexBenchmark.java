@@ -0,0 +1,57 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.benchmark.Fixtures;
+import com.warrantywalket.dto.WarrantySuggestion;
+import com.warrantywalket.model.Warranty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Autocomplete latency percentiles (p99 target: under 10 ms) against one wallet of the given size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String USER_ID = "user-0";
+
+    @Param({"1000", "10000"})
+    public int walletSize;
+
+    // Short prefixes match the most tokens and are the expensive case
+    @Param({"p", "product 12", "merchant 4 prod", "mdl-12", "inv-1000"})
+    public String query;
+
+    private WarrantySearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        List<Warranty> warranties = Fixtures.warranties(walletSize);
+        warranties.forEach(warranty -> warranty.setUserId(USER_ID));
+
+        searchIndex = new WarrantySearchIndex(10);
+        Fixtures.inject(searchIndex, "ttlMs", Long.MAX_VALUE);
+        searchIndex.load(USER_ID, warranties);
+    }
+
+    @Benchmark
+    public List<WarrantySuggestion> autocomplete() {
+        return searchIndex.autocomplete(USER_ID, query, 10);
+    }
+}
@@ -0,0 +1,118 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.benchmark.Fixtures;
+import com.warrantywalket.dto.WarrantyResponse;
+import com.warrantywalket.model.Warranty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Lives in the service package to reach WarrantyService's package-private helpers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarrantyServiceBenchmark {
+
+    private WarrantyService warrantyService;
+    private WarrantyFieldParser parser;
+    private Warranty warranty;
+    private LocalDate invoiceDate;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        parser = new WarrantyFieldParser();
+        warrantyService = newWarrantyService();
+        warranty = Fixtures.warranties(1).get(0);
+        invoiceDate = warranty.getInvoiceDate();
+        today = LocalDate.now();
+        warrantyService.calculateWarrantyExpiry(warranty);
+    }
+
+    // Only parseDate varies with the input format, so the other benchmarks run once
+    @State(Scope.Benchmark)
+    public static class DateInput {
+
+        // Index into Fixtures.DATES; the last formats are the most expensive to reach
+        @Param({"0", "4", "7"})
+        public int dateFormat;
+
+        String date;
+
+        @Setup
+        public void setUp() {
+            date = Fixtures.DATES[dateFormat];
+        }
+    }
+
+    @Benchmark
+    public LocalDate parseDate(DateInput input) {
+        return parser.parseDate(input.date);
+    }
+
+    @Benchmark
+    public LocalDate calculateExpiryDate() {
+        return parser.calculateExpiryDate(invoiceDate, "18 months");
+    }
+
+    @Benchmark
+    public Warranty calculateWarrantyExpiry() {
+        warrantyService.calculateWarrantyExpiry(warranty);
+        return warranty;
+    }
+
+    @Benchmark
+    public WarrantyResponse mapToResponse() {
+        return warrantyService.mapToResponse(warranty, today);
+    }
+
+    // A full list read: map every document of a realistic wallet
+    @State(Scope.Benchmark)
+    public static class Wallet {
+
+        @Param({"10", "1000", "10000"})
+        public int size;
+
+        List<Warranty> warranties;
+
+        @Setup
+        public void setUp() {
+            WarrantyService service = newWarrantyService();
+            warranties = Fixtures.warranties(size);
+            warranties.forEach(service::calculateWarrantyExpiry);
+        }
+    }
+
+    static WarrantyService newWarrantyService() {
+        WarrantyService service = new WarrantyService();
+        Fixtures.inject(service, "warrantyFieldParser", new WarrantyFieldParser());
+        return service;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int mapWallet(Wallet wallet) {
+        int mapped = 0;
+        for (Warranty w : wallet.warranties) {
+            if (warrantyService.mapToResponse(w, today) != null) {
+                mapped++;
+            }
+        }
+        return mapped;
+    }
+}
@@ -0,0 +1,62 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.security.JwtTokenProvider;
+import com.warrantywalket.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of JwtAuthenticationFilter. The principal is always built from the token's claims,
+// as in the servlet stack's stateless mode, so a request never waits on a user lookup.
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtTokenProvider tokenProvider;
+    private final MeterRegistry meterRegistry;
+
+    public JwtAuthenticationWebFilter(JwtTokenProvider tokenProvider, MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getPath().pathWithinApplication().value().startsWith("/api/auth/")) {
+            return chain.filter(exchange);
+        }
+
+        // Only the authentication work is timed, not the rest of the chain
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String jwt = getJwtFromRequest(exchange);
+        Claims claims = StringUtils.hasText(jwt) ? tokenProvider.verifyToken(jwt) : null;
+
+        if (claims == null) {
+            sample.stop(meterRegistry.timer("auth.filter", "result", StringUtils.hasText(jwt) ? "rejected" : "anonymous"));
+            return chain.filter(exchange);
+        }
+
+        UserPrincipal principal = tokenProvider.toPrincipal(claims);
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        sample.stop(meterRegistry.timer("auth.filter", "result", "authenticated"));
+
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private String getJwtFromRequest(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.model.RevokedToken;
+import com.warrantywalket.security.RevokedTokenStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+// The same revoked_tokens collection as MongoRevokedTokenStore, over the reactive driver. TokenDenyList
+// only calls it at startup and from its scheduled sync, never on a request, so blocking here is fine.
+@Component
+public class ReactiveRevokedTokenStore implements RevokedTokenStore {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public void save(String tokenId, Date expiration) {
+        mongoTemplate.save(new RevokedToken(tokenId, expiration, new Date())).block(TIMEOUT);
+    }
+
+    @Override
+    public List<RevokedToken> findRevokedSince(Date since) {
+        Query query = Query.query(Criteria.where("revokedAt").gte(since).and("expiresAt").gt(new Date()));
+        return mongoTemplate.find(query, RevokedToken.class).collectList().block(TIMEOUT);
+    }
+}
@@ -0,0 +1,113 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Same rules as SecurityConfig, on the WebFlux filter chain. Tokens are issued by the servlet backend's
+// /api/auth endpoints and verified here with the shared jwt.secret.
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+
+    // As in SecurityConfig: the Prometheus scrape takes HTTP Basic as the scrape user and stays closed
+    // while no password is configured
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain metricsWebFilterChain(ServerHttpSecurity http) {
+        http
+                .securityMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus"))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        if (scrapePassword.isEmpty()) {
+            return http
+                    .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                    .authorizeExchange(exchange -> exchange.anyExchange().denyAll())
+                    .build();
+        }
+
+        PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        UserDetailsRepositoryReactiveAuthenticationManager scrapeManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(new MapReactiveUserDetailsService(
+                        User.withUsername(scrapeUsername)
+                                .password(passwordEncoder.encode(scrapePassword))
+                                .roles("METRICS")
+                                .build()));
+        scrapeManager.setPasswordEncoder(passwordEncoder);
+
+        return http
+                .authorizeExchange(exchange -> exchange.anyExchange().hasRole("METRICS"))
+                .httpBasic(basic -> basic.authenticationManager(scrapeManager))
+                .build();
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtTokenProvider tokenProvider,
+                                                         MeterRegistry meterRegistry) {
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/api/auth/**").permitAll()
+                        .pathMatchers("/actuator/health").permitAll()
+                        .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(new JwtAuthenticationWebFilter(tokenProvider, meterRegistry),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+
+        String allowedOrigin = System.getenv("ALLOWED_ORIGINS");
+        if (allowedOrigin == null || allowedOrigin.isEmpty()) {
+            allowedOrigin = "http://localhost:5173";
+        }
+
+        configuration.setAllowedOrigins(List.of(allowedOrigin));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(List.of("*"));
+        configuration.setAllowCredentials(true);
+        configuration.setMaxAge(3600L); // Cache preflight for 1 hour
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
@@ -0,0 +1,34 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.model.WalletVersion;
+import com.warrantywalket.model.WarrantySummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// What the MVC backend's WalletVersionService and WarrantySummaryService do after a write, for writes made
+// here: bumps the version behind the MVC list ETags, and drops the stored summary, which the MVC backend
+// recomputes on its next read.
+@Service
+public class ReactiveWalletVersionService {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    public Mono<Void> onWalletChanged(String userId) {
+        Query byUser = Query.query(Criteria.where("_id").is(userId));
+        Update versionUpdate = new Update()
+                .inc("version", 1)
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.upsert(byUser, versionUpdate, WalletVersion.class)
+                .then(mongoTemplate.remove(byUser, WarrantySummary.class))
+                .then();
+    }
+}
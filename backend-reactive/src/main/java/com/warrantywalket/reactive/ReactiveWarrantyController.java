@@ -0,0 +1,159 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.dto.WarrantyResponse;
+import com.warrantywalket.service.OcrBusyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Same paths and response bodies as WarrantyController. Lists are written as they are read from
+// Mongo: a JSON array by default, or one document per line for Accept: application/x-ndjson.
+@RestController
+@RequestMapping("/api/warranties")
+public class ReactiveWarrantyController {
+
+    private static final CacheControl IMAGE_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
+    @Autowired
+    private ReactiveWarrantyService warrantyService;
+
+    @PostMapping(value = "/scan", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<?>> scanBill(
+            @RequestPart("file") Mono<FilePart> file,
+            Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        return file
+                .flatMap(part -> warrantyService.scanAndSaveBill(part, username))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(OcrBusyException.class, e -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "All OCR slots stayed busy, please retry shortly");
+                    return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error));
+                })
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Scan queue is full, please retry shortly");
+                    return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error));
+                })
+                .onErrorResume(e -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Failed to scan bill: " + e.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError().body(error));
+                });
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<WarrantyResponse> getAllWarranties(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return warrantyService.getUserWarranties(userDetails.getUsername());
+    }
+
+    @GetMapping(value = "/active", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<WarrantyResponse> getActiveWarranties(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return warrantyService.getActiveWarranties(userDetails.getUsername());
+    }
+
+    @GetMapping(value = "/expiring-soon", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<WarrantyResponse> getExpiringSoonWarranties(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return warrantyService.getExpiringSoonWarranties(userDetails.getUsername());
+    }
+
+    @GetMapping(value = "/expired", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<WarrantyResponse> getExpiredWarranties(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return warrantyService.getExpiredWarranties(userDetails.getUsername());
+    }
+
+    // Range and If-Range are handled by WebFlux's resource writer, which serves the file in regions
+    // without reading it into memory
+    @GetMapping("/{id}/image")
+    public Mono<ResponseEntity<?>> getWarrantyImage(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        return warrantyService.getWarrantyWithImage(id, username)
+                .<ResponseEntity<?>>map(warranty -> {
+                    String etag = "\"" + warranty.getContentHash() + "\"";
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setETag(etag);
+                    headers.setCacheControl(IMAGE_CACHE_CONTROL);
+
+                    if (etagMatches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+                    }
+
+                    FileSystemResource image = new FileSystemResource(Paths.get(warranty.getImagePath()));
+                    headers.setContentType(MediaTypeFactory.getMediaType(image)
+                            .orElse(MediaType.APPLICATION_OCTET_STREAM));
+                    return ResponseEntity.ok().headers(headers).body(image);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Image not found");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                }));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Map<String, String>>> deleteWarranty(
+            @PathVariable String id,
+            Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        return warrantyService.deleteWarranty(id, username)
+                .then(Mono.fromSupplier(() -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "Warranty deleted successfully");
+                    return ResponseEntity.ok(response);
+                }))
+                .onErrorResume(e -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(error));
+                });
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        // If-None-Match uses weak comparison, so W/"x" matches "x"
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.model.Warranty;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// Same queries as WarrantyRepository, served by the same (userId, expiryDate, _id) index
+@Repository
+public interface ReactiveWarrantyRepository extends ReactiveMongoRepository<Warranty, String> {
+
+    Flux<Warranty> findByUserIdOrderByExpiryDateAsc(String userId);
+
+    @Query(value = "{ 'userId': ?0, 'expiryDate': { $gte: ?1 } }", sort = "{ 'expiryDate': 1 }")
+    Flux<Warranty> findActive(String userId, LocalDate today);
+
+    @Query(value = "{ 'userId': ?0, 'expiryDate': { $gte: ?1, $lte: ?2 } }", sort = "{ 'expiryDate': 1 }")
+    Flux<Warranty> findExpiringBetween(String userId, LocalDate from, LocalDate to);
+
+    @Query(value = "{ 'userId': ?0, 'expiryDate': { $lt: ?1 } }", sort = "{ 'expiryDate': 1 }")
+    Flux<Warranty> findExpired(String userId, LocalDate today);
+
+    Mono<Boolean> existsByImagePathAndIdNot(String imagePath, String id);
+}
@@ -0,0 +1,313 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.dto.WarrantyResponse;
+import com.warrantywalket.model.OcrResult;
+import com.warrantywalket.model.Warranty;
+import com.warrantywalket.service.ImageNormalizer;
+import com.warrantywalket.service.OcrService;
+import com.warrantywalket.service.StoredUpload;
+import com.warrantywalket.service.WarrantyFieldParser;
+import com.warrantywalket.service.WarrantyService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+
+// The /api/warranties operations without blocking a request thread: uploads are streamed to disk,
+// Mongo is reached through the reactive driver, and OCR, the one blocking step, runs on a bounded
+// scheduler sized like the OCR worker pool. Reads and writes the same documents and upload directory
+// as WarrantyService, and scans take the same steps: a receipt scanned before on either stack reuses its
+// ocr_results entry and stored image, anything else is normalized and OCRed. Only the MVC backend's
+// in-memory LRU in front of ocr_results is missing here. Writes bump the wallet version and drop the stored summary, so MVC list ETags and
+// the dashboard see them. Thumbnails are not generated here; the MVC backend generates them on first
+// request. Expiry reminders for scans made here come from the MVC backend's ExpiryAlertEngine as its
+// cursors reach them; a receipt whose expiry is already inside a reminder window (e.g. 20 days out, past
+// the 30-day cursor) misses that one reminder unless the MVC backend restarts within the window. Later
+// reminders are sent as usual.
+@Service
+public class ReactiveWarrantyService {
+
+    @Autowired
+    private ReactiveWarrantyRepository warrantyRepository;
+
+    @Autowired
+    private ReactiveWalletVersionService walletVersionService;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private OcrService ocrService;
+
+    @Autowired
+    private ImageNormalizer imageNormalizer;
+
+    @Autowired
+    private WarrantyFieldParser warrantyFieldParser;
+
+    @Value("${ocr.pool.size:2}")
+    private int ocrThreads;
+
+    // Scans waiting for an OCR thread; beyond this they fail fast instead of piling up
+    @Value("${reactive.ocr.queue-capacity:100}")
+    private int ocrQueueCapacity;
+
+    private Scheduler ocrScheduler;
+
+    @PreDestroy
+    public void shutdown() {
+        if (ocrScheduler != null) {
+            ocrScheduler.dispose();
+        }
+    }
+
+    public Mono<WarrantyResponse> scanAndSaveBill(FilePart file, String userId) {
+        String filename = file.filename();
+        String uniqueFilename = UUID.randomUUID() + filename.substring(filename.lastIndexOf('.'));
+        Path filePath = Paths.get(getUploadDir()).resolve(uniqueFilename);
+        MessageDigest digest = newSha256Digest();
+
+        // Hash the content while writing it, as WarrantyService.storeUpload does
+        Flux<DataBuffer> content = file.content().doOnNext(buffer -> {
+            try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                buffers.forEachRemaining(digest::update);
+            }
+        });
+
+        return Mono.fromCallable(() -> Files.createDirectories(filePath.getParent()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(DataBufferUtils.write(content, filePath))
+                .then(Mono.fromSupplier(() -> new StoredUpload(filePath, HexFormat.of().formatHex(digest.digest()))))
+                .flatMap(upload -> extractBillDetails(upload)
+                        .map(extractedData -> buildWarranty(extractedData, upload.getPath(), upload.getContentHash(), userId)))
+                .flatMap(warrantyRepository::save)
+                .flatMap(warranty -> walletVersionService.onWalletChanged(userId).thenReturn(warranty))
+                .map(warranty -> mapToResponse(warranty, LocalDate.now()));
+    }
+
+    public Flux<WarrantyResponse> getUserWarranties(String userId) {
+        LocalDate today = LocalDate.now();
+        return warrantyRepository.findByUserIdOrderByExpiryDateAsc(userId)
+                .map(warranty -> mapToResponse(warranty, today));
+    }
+
+    public Flux<WarrantyResponse> getActiveWarranties(String userId) {
+        LocalDate today = LocalDate.now();
+        return warrantyRepository.findActive(userId, today)
+                .map(warranty -> mapToResponse(warranty, today));
+    }
+
+    public Flux<WarrantyResponse> getExpiringSoonWarranties(String userId) {
+        LocalDate today = LocalDate.now();
+        return warrantyRepository.findExpiringBetween(userId, today, today.plusDays(WarrantyService.EXPIRING_SOON_DAYS))
+                .map(warranty -> mapToResponse(warranty, today));
+    }
+
+    public Flux<WarrantyResponse> getExpiredWarranties(String userId) {
+        LocalDate today = LocalDate.now();
+        return warrantyRepository.findExpired(userId, today)
+                .map(warranty -> mapToResponse(warranty, today));
+    }
+
+    // Empty when the warranty does not exist, belongs to someone else or has no image on disk
+    public Mono<Warranty> getWarrantyWithImage(String warrantyId, String userId) {
+        return warrantyRepository.findById(warrantyId)
+                .filter(warranty -> warranty.getUserId().equals(userId) && warranty.getImagePath() != null)
+                .filterWhen(warranty -> Mono.fromCallable(() -> Files.isRegularFile(Paths.get(warranty.getImagePath())))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    public Mono<Void> deleteWarranty(String warrantyId, String userId) {
+        return warrantyRepository.findById(warrantyId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Warranty not found")))
+                .flatMap(warranty -> {
+                    if (!warranty.getUserId().equals(userId)) {
+                        return Mono.error(new RuntimeException("Unauthorized to delete this warranty"));
+                    }
+
+                    // Delete image file, unless a repeat upload of the same receipt still shares it
+                    Mono<Void> deleteImage = warranty.getImagePath() == null
+                            ? Mono.empty()
+                            : warrantyRepository.existsByImagePathAndIdNot(warranty.getImagePath(), warranty.getId())
+                                    .filter(shared -> !shared)
+                                    .flatMap(unshared -> Mono.fromCallable(
+                                                    () -> Files.deleteIfExists(Paths.get(warranty.getImagePath())))
+                                            .subscribeOn(Schedulers.boundedElastic()))
+                                    .onErrorResume(IOException.class, e -> Mono.empty())
+                                    .then();
+
+                    return deleteImage
+                            .then(warrantyRepository.delete(warranty))
+                            .then(walletVersionService.onWalletChanged(userId));
+                });
+    }
+
+    // As WarrantyService.extractBillDetails: a repeat upload reuses the stored OCR result and image and
+    // drops its own copy; anything else goes through OCR and is recorded for the next one
+    private Mono<Map<String, String>> extractBillDetails(StoredUpload upload) {
+        return mongoTemplate.findById(upload.getContentHash(), OcrResult.class)
+                .flatMap(cached -> reuseOcrResult(cached, upload))
+                .switchIfEmpty(Mono.defer(() -> Mono.fromCallable(() -> runOcr(upload.getPath()))
+                        .subscribeOn(ocrScheduler())
+                        .flatMap(fields -> saveOcrResult(upload, fields))));
+    }
+
+    private Mono<Map<String, String>> reuseOcrResult(OcrResult cached, StoredUpload upload) {
+        Path cachedImage = Paths.get(cached.getImagePath());
+
+        return Mono.fromCallable(() -> {
+                    if (cachedImage.equals(upload.getPath()) || !Files.exists(cachedImage)) {
+                        return false;
+                    }
+                    // Reuse the image already on disk and drop the duplicate we just wrote
+                    try {
+                        Files.deleteIfExists(upload.getPath());
+                        upload.setPath(cachedImage);
+                    } catch (IOException e) {
+                        // Keep the new copy if the duplicate cannot be removed
+                    }
+                    return true;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(reused -> reused
+                        ? Mono.just(cached.getFields())
+                        // The original image is gone, so point the cache at this copy
+                        : saveOcrResult(upload, cached.getFields()));
+    }
+
+    private Mono<Map<String, String>> saveOcrResult(StoredUpload upload, Map<String, String> fields) {
+        OcrResult result = new OcrResult(upload.getContentHash(), fields, upload.getPath().toString(), LocalDateTime.now());
+        return mongoTemplate.save(result).thenReturn(fields);
+    }
+
+    // As WarrantyService.runOcr: OCR runs on a normalized temp copy when possible; the stored image stays
+    // the original upload. Called on the OCR scheduler.
+    private Map<String, String> runOcr(Path image) {
+        Path normalized = imageNormalizer.normalize(image);
+        if (normalized == null) {
+            return ocrService.extractBillDetails(image.toString());
+        }
+
+        try {
+            return ocrService.extractBillDetails(normalized.toString(), true);
+        } finally {
+            try {
+                Files.deleteIfExists(normalized);
+            } catch (IOException e) {
+                // Temp files are cleaned up by the OS eventually
+            }
+        }
+    }
+
+    private synchronized Scheduler ocrScheduler() {
+        if (ocrScheduler == null) {
+            ocrScheduler = Schedulers.newBoundedElastic(ocrThreads, ocrQueueCapacity, "ocr");
+        }
+        return ocrScheduler;
+    }
+
+    private Warranty buildWarranty(Map<String, String> extractedData, Path filePath, String contentHash, String userId) {
+        Warranty warranty = new Warranty(userId);
+        warranty.setInvoiceNumber(extractedData.get("invoice_number"));
+        warranty.setSerialNumber(extractedData.get("serial_number"));
+        warranty.setModelNumber(extractedData.get("model_number"));
+        warranty.setAssetPrice(extractedData.get("asset_price"));
+        warranty.setWarrantyPeriod(extractedData.get("warranty_period"));
+        warranty.setPaymentMethod(extractedData.get("payment_method"));
+        warranty.setMerchantName(extractedData.get("merchant_name"));
+        warranty.setProductName(extractedData.get("product_name"));
+        warranty.setImagePath(filePath.toString());
+        warranty.setContentHash(contentHash);
+
+        String currency = warrantyFieldParser.parseCurrency(warranty.getAssetPrice());
+        Long minorUnits = warrantyFieldParser.parseMinorUnits(warranty.getAssetPrice(), currency);
+        warranty.setPriceMinor(minorUnits);
+        warranty.setPriceCurrency(minorUnits == null ? null : currency);
+
+        // If the date cannot be read, fall back to today's date
+        String invoiceDateStr = extractedData.get("invoice_date");
+        if (invoiceDateStr != null && !invoiceDateStr.isEmpty()) {
+            LocalDate invoiceDate = warrantyFieldParser.parseDate(invoiceDateStr);
+            warranty.setInvoiceDate(invoiceDate != null ? invoiceDate : LocalDate.now());
+        }
+
+        if (warranty.getInvoiceDate() == null || warranty.getWarrantyPeriod() == null) {
+            warranty.setStatus("UNKNOWN");
+            return warranty;
+        }
+
+        LocalDate expiryDate = warrantyFieldParser.calculateExpiryDate(
+                warranty.getInvoiceDate(), warranty.getWarrantyPeriod());
+        long daysRemaining = ChronoUnit.DAYS.between(LocalDate.now(), expiryDate);
+        warranty.setExpiryDate(expiryDate);
+        warranty.setDaysRemaining(daysRemaining);
+        warranty.setStatus(WarrantyService.statusFor(daysRemaining));
+        warranty.setUpdatedAt(LocalDateTime.now());
+        return warranty;
+    }
+
+    private WarrantyResponse mapToResponse(Warranty warranty, LocalDate today) {
+        WarrantyResponse response = new WarrantyResponse();
+        response.setId(warranty.getId());
+        response.setInvoiceNumber(warranty.getInvoiceNumber());
+        response.setInvoiceDate(warranty.getInvoiceDate());
+        response.setSerialNumber(warranty.getSerialNumber());
+        response.setModelNumber(warranty.getModelNumber());
+        response.setAssetPrice(warranty.getAssetPrice());
+        response.setPriceMinor(warranty.getPriceMinor());
+        response.setPriceCurrency(warranty.getPriceCurrency());
+        response.setWarrantyPeriod(warranty.getWarrantyPeriod());
+        response.setPaymentMethod(warranty.getPaymentMethod());
+        response.setMerchantName(warranty.getMerchantName());
+        response.setProductName(warranty.getProductName());
+        response.setExpiryDate(warranty.getExpiryDate());
+        response.setDaysRemaining(warranty.getDaysRemaining());
+        response.setStatus(warranty.getStatus());
+
+        // The stored status is a snapshot; derive the current one so reads never need a write
+        if (warranty.getExpiryDate() != null) {
+            long daysRemaining = ChronoUnit.DAYS.between(today, warranty.getExpiryDate());
+            response.setDaysRemaining(daysRemaining);
+            response.setStatus(WarrantyService.statusFor(daysRemaining));
+        }
+        // No thumbnail endpoint on this stack, so only the full image is linked
+        if (warranty.getImagePath() != null) {
+            response.setImageUrl("/api/warranties/" + warranty.getId() + "/image");
+        }
+        return response;
+    }
+
+    private String getUploadDir() {
+        // Same directory as WarrantyService: uploads/ next to the module directory
+        return Paths.get(System.getProperty("user.dir")).getParent().resolve("uploads").toString();
+    }
+
+    private MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.warrantywalket.reactive;
+
+import com.warrantywalket.security.JwtTokenProvider;
+import com.warrantywalket.security.TokenDenyList;
+import com.warrantywalket.service.ImageNormalizer;
+import com.warrantywalket.service.OcrService;
+import com.warrantywalket.service.OcrWorkerPool;
+import com.warrantywalket.service.WarrantyFieldParser;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// WebFlux variant of the warranty API. Only this package is scanned; the blocking-free pieces of the
+// backend (OCR, field parsing, JWT verification) are imported as they are. TokenDenyList shares
+// revocations with the MVC backend through ReactiveRevokedTokenStore, so a logout there holds here too.
+@SpringBootApplication
+@EnableScheduling
+@Import({
+        WarrantyFieldParser.class,
+        ImageNormalizer.class,
+        OcrService.class,
+        OcrWorkerPool.class,
+        JwtTokenProvider.class,
+        TokenDenyList.class
+})
+public class ReactiveWarrantyWalletApplication {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveWarrantyWalletApplication.class);
+        // Shares the backend's application.properties; application-reactive.properties holds the overrides
+        application.setAdditionalProfiles("reactive");
+        application.run(args);
+    }
+}
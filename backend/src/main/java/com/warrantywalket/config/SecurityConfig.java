@@ -3,24 +3,31 @@ package com.warrantywalket.config;
 import com.warrantywalket.security.CustomUserDetailsService;
 import com.warrantywalket.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import static org.springframework.security.config.Customizer.withDefaults;
+
 import java.util.Arrays;
 import java.util.List;
 
@@ -35,9 +42,18 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${metrics.scrape.password:}")
+    private String scrapePassword;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -45,6 +61,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehash on successful login when the stored hash is weaker than auth.bcrypt.strength
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -62,6 +80,35 @@ public class SecurityConfig {
         return registration;
     }
 
+    // The Prometheus scrape exposes internals (per-endpoint timings, pool sizes, auth rejections), so it
+    // takes HTTP Basic as the scrape user rather than a user JWT. Closed while no password is configured.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        if (scrapePassword.isEmpty()) {
+            http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+            return http.build();
+        }
+
+        DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider();
+        scrapeProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(scrapeUsername)
+                .password(passwordEncoder().encode(scrapePassword))
+                .roles("METRICS")
+                .build()));
+        scrapeProvider.setPasswordEncoder(passwordEncoder());
+
+        http
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"))
+                .authenticationManager(new ProviderManager(scrapeProvider))
+                .httpBasic(withDefaults());
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 
@@ -72,6 +119,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/health").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/error").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                         .anyRequest().authenticated())
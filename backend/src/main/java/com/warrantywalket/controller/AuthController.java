@@ -6,18 +6,24 @@ import com.warrantywalket.dto.SignupRequest;
 import com.warrantywalket.model.User;
 import com.warrantywalket.repository.UserRepository;
 import com.warrantywalket.security.JwtTokenProvider;
+import com.warrantywalket.security.PasswordHashingExecutor;
+import com.warrantywalket.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -43,6 +49,9 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @GetMapping("/dbtest")
     public ResponseEntity<?> testDb() {
         Map<String, Object> response = new HashMap<>();
@@ -58,8 +67,30 @@ public class AuthController {
         }
     }
 
+    // Signup and login both run BCrypt, so they are handed to the bounded hashing pool and the
+    // request thread is released; when that pool is saturated the request is shed with 429.
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+        return onHashingPool(() -> register(signUpRequest));
+    }
+
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return onHashingPool(() -> login(loginRequest));
+    }
+
+    private CompletableFuture<ResponseEntity<?>> onHashingPool(Supplier<ResponseEntity<?>> task) {
+        try {
+            return passwordHashingExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too many authentication requests, please retry shortly");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error));
+        }
+    }
+
+    private ResponseEntity<?> register(SignupRequest signUpRequest) {
         try {
             if (userRepository.existsByUsername(signUpRequest.getUsername())) {
                 Map<String, String> error = new HashMap<>();
@@ -92,19 +123,17 @@ public class AuthController {
         }
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    private ResponseEntity<?> login(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequest.getUsername(),
                             loginRequest.getPassword()));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = tokenProvider.generateToken(authentication);
 
-            User user = userRepository.findByUsername(loginRequest.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // The principal loaded during authentication already carries id and email
+            UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
 
             return ResponseEntity.ok(new JwtResponse(
                     jwt,
@@ -118,4 +147,16 @@ public class AuthController {
             return ResponseEntity.internalServerError().body(error);
         }
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            tokenProvider.revokeToken(bearerToken.substring(7));
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Logged out successfully");
+        return ResponseEntity.ok(response);
+    }
 }
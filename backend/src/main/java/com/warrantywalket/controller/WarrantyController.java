@@ -1,35 +1,106 @@
 package com.warrantywalket.controller;
 
+import com.warrantywalket.dto.BatchScanResponse;
+import com.warrantywalket.dto.WarrantyPage;
 import com.warrantywalket.dto.WarrantyResponse;
+import com.warrantywalket.dto.WarrantySuggestion;
+import com.warrantywalket.dto.WarrantySummaryResponse;
+import com.warrantywalket.service.BatchScanService;
+import com.warrantywalket.service.OcrBusyException;
+import com.warrantywalket.service.ReceiptImage;
+import com.warrantywalket.service.ScanJob;
+import com.warrantywalket.service.ScanJobService;
+import com.warrantywalket.service.Thumbnail;
+import com.warrantywalket.service.ThumbnailService;
+import com.warrantywalket.service.WalletVersionService;
 import com.warrantywalket.service.WarrantyService;
+import com.warrantywalket.service.WarrantySort;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/warranties")
 public class WarrantyController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    // A warranty's image never changes, so browsers may keep it for good and revalidate by ETag
+    private static final CacheControl IMAGE_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
+    // Lists change with every scan, so browsers must revalidate them each time
+    private static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    // Tomcat request attributes for handing a file region to the connector's sendfile()
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private WarrantyService warrantyService;
 
+    @Autowired
+    private ScanJobService scanJobService;
+
+    @Autowired
+    private BatchScanService batchScanService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private WalletVersionService walletVersionService;
+
     @PostMapping("/scan")
     public ResponseEntity<?> scanBill(
             @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
             Authentication authentication) {
         try {
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             String username = userDetails.getUsername();
 
+            if (async) {
+                ScanJob job = scanJobService.submit(file, username);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toResponse());
+            }
+
             WarrantyResponse warranty = warrantyService.scanAndSaveBill(file, username);
             return ResponseEntity.ok(warranty);
+        } catch (OcrBusyException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "All OCR slots stayed busy, please retry shortly");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+        } catch (RejectedExecutionException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Scan queue is full, please retry shortly");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to scan bill: " + e.getMessage());
@@ -37,31 +108,297 @@ public class WarrantyController {
         }
     }
 
+    @PostMapping("/scan/batch")
+    public ResponseEntity<?> scanBills(
+            @RequestParam("files") List<MultipartFile> files,
+            Authentication authentication) {
+        if (files.size() > batchScanService.getMaxFiles()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too many files, at most " + batchScanService.getMaxFiles() + " per batch");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        try {
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            String username = userDetails.getUsername();
+
+            BatchScanResponse response = batchScanService.scanAll(files, username);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to scan bills: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+    }
+
+    @GetMapping("/scan/{jobId}")
+    public ResponseEntity<?> getScanJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        return scanJobService.getJob(jobId, username)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.toResponse()))
+                .orElseGet(() -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("error", "Scan job not found");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                });
+    }
+
     @GetMapping
-    public ResponseEntity<List<WarrantyResponse>> getAllWarranties(Authentication authentication) {
+    public ResponseEntity<?> getAllWarranties(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "stream", defaultValue = "false") boolean stream,
+            @RequestParam(value = "minPrice", required = false) String minPrice,
+            @RequestParam(value = "maxPrice", required = false) String maxPrice,
+            @RequestParam(value = "sort", defaultValue = "expiry") String sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String username = userDetails.getUsername();
 
-        List<WarrantyResponse> warranties = warrantyService.getUserWarranties(username);
+        Long minPriceMinor;
+        Long maxPriceMinor;
+        WarrantySort order;
+        try {
+            minPriceMinor = warrantyService.parsePriceFilter(minPrice);
+            maxPriceMinor = warrantyService.parsePriceFilter(maxPrice);
+            order = WarrantySort.fromParam(sort);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+        boolean filtered = minPriceMinor != null || maxPriceMinor != null || order != WarrantySort.EXPIRY;
+
+        if (stream && filtered) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "stream does not support price filters or sort");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        if (stream) {
+            StreamingResponseBody body = out -> warrantyService.streamUserWarranties(username, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(body);
+        }
+
+        if (limit != null || cursor != null) {
+            int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "limit must be between 1 and " + MAX_PAGE_SIZE);
+                return ResponseEntity.badRequest().body(error);
+            }
+
+            try {
+                return conditionalList(username, ifNoneMatch, () -> warrantyService.getUserWarrantiesPage(
+                        username, pageSize, cursor, minPriceMinor, maxPriceMinor, order));
+            } catch (IllegalArgumentException e) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Invalid cursor");
+                return ResponseEntity.badRequest().body(error);
+            }
+        }
+
+        return conditionalList(username, ifNoneMatch, () -> filtered
+                ? warrantyService.getUserWarranties(username, minPriceMinor, maxPriceMinor, order)
+                : warrantyService.getUserWarranties(username));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<WarrantySummaryResponse> getSummary(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        return ResponseEntity.ok(warrantyService.getSummary(username));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchWarranties(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            Authentication authentication) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "limit must be between 1 and " + MAX_PAGE_SIZE);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        List<WarrantyResponse> warranties = warrantyService.searchWarranties(username, query, limit);
         return ResponseEntity.ok(warranties);
     }
 
+    @GetMapping("/search/autocomplete")
+    public ResponseEntity<?> autocompleteWarranties(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            Authentication authentication) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "limit must be between 1 and " + MAX_SUGGESTIONS);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        List<WarrantySuggestion> suggestions = warrantyService.autocompleteWarranties(username, query, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @GetMapping("/active")
-    public ResponseEntity<List<WarrantyResponse>> getActiveWarranties(Authentication authentication) {
+    public ResponseEntity<List<WarrantyResponse>> getActiveWarranties(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String username = userDetails.getUsername();
 
-        List<WarrantyResponse> warranties = warrantyService.getActiveWarranties(username);
-        return ResponseEntity.ok(warranties);
+        return conditionalList(username, ifNoneMatch, () -> warrantyService.getActiveWarranties(username));
+    }
+
+    @GetMapping("/expiring-soon")
+    public ResponseEntity<List<WarrantyResponse>> getExpiringSoonWarranties(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        return conditionalList(username, ifNoneMatch, () -> warrantyService.getExpiringSoonWarranties(username));
     }
 
     @GetMapping("/expired")
-    public ResponseEntity<List<WarrantyResponse>> getExpiredWarranties(Authentication authentication) {
+    public ResponseEntity<List<WarrantyResponse>> getExpiredWarranties(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String username = userDetails.getUsername();
 
-        List<WarrantyResponse> warranties = warrantyService.getExpiredWarranties(username);
-        return ResponseEntity.ok(warranties);
+        return conditionalList(username, ifNoneMatch, () -> warrantyService.getExpiredWarranties(username));
+    }
+
+    @GetMapping("/{id}/image")
+    public ResponseEntity<?> getWarrantyImage(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            Authentication authentication,
+            HttpServletRequest request) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        Optional<ReceiptImage> found;
+        try {
+            found = warrantyService.getWarrantyImage(id, username);
+        } catch (IOException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to read image: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(error);
+        }
+
+        if (found.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Image not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+
+        ReceiptImage image = found.get();
+        String etag = "\"" + image.getContentHash() + "\"";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(IMAGE_CACHE_CONTROL);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        long size = image.getSize();
+        long start = 0;
+        long end = size - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        // A stale If-Range means the client's partial copy is outdated, so it gets the whole file
+        if (range != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds != null && bounds.length == 0) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long count = end - start + 1;
+        headers.setContentType(MediaTypeFactory.getMediaType(image.getPath().getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM));
+        headers.setContentLength(count);
+
+        // Let Tomcat sendfile() the bytes straight from the page cache when the connector supports it
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+                && HttpMethod.GET.matches(request.getMethod())
+                && count > 0) {
+            request.setAttribute(SENDFILE_FILENAME, image.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        long position = start;
+        StreamingResponseBody body = out -> image.transferTo(position, count, out);
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+
+    @GetMapping("/{id}/thumbnail")
+    public ResponseEntity<?> getWarrantyThumbnail(
+            @PathVariable String id,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String username = userDetails.getUsername();
+
+        int thumbnailSize = size == null ? thumbnailService.getDefaultSize() : size;
+        if (!thumbnailService.isSupportedSize(thumbnailSize)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "size must be one of " + Arrays.toString(thumbnailService.getSizes()));
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        Optional<Thumbnail> found = warrantyService.getWarrantyThumbnail(id, username, thumbnailSize);
+        if (found.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Thumbnail not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+
+        Thumbnail thumbnail = found.get();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(IMAGE_CACHE_CONTROL);
+
+        if (thumbnail.getContentHash() != null) {
+            String etag = "\"" + thumbnail.getContentHash() + "-" + thumbnailSize + "\"";
+            headers.setETag(etag);
+            if (etagMatches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+            }
+        }
+
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        return ResponseEntity.ok().headers(headers).body(thumbnail.getData());
     }
 
     @DeleteMapping("/{id}")
@@ -83,4 +420,90 @@ public class WarrantyController {
             return ResponseEntity.badRequest().body(error);
         }
     }
+
+    // Lists carry a weak ETag of the user, the wallet version and today's date, since status and
+    // daysRemaining are derived from the date. A matching If-None-Match is answered from the version
+    // document alone. Vary: Authorization keeps a browser shared by two users from mixing up their lists.
+    private <T> ResponseEntity<T> conditionalList(String username, String ifNoneMatch, Supplier<T> body) {
+        String etag = "\"" + walletVersionService.getListTag(username) + "-" + LocalDate.now() + "\"";
+
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag("W/" + etag)
+                    .cacheControl(LIST_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.AUTHORIZATION)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag("W/" + etag)
+                .cacheControl(LIST_CACHE_CONTROL)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(body.get());
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        // If-None-Match uses weak comparison, so W/"x" matches "x"
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Parses a single "bytes=first-last", "bytes=first-" or "bytes=-suffix" range into inclusive
+    // bounds. Returns null when the header should be ignored (malformed or several ranges) and an
+    // empty array when the range cannot be satisfied.
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Long.parseLong(last);
+                if (start < 0 || end < start) {
+                    return null;
+                }
+                end = Math.min(end, size - 1);
+            }
+
+            if (start >= size) {
+                return new long[0];
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
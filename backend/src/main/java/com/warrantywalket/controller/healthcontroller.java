@@ -8,7 +8,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api")
 public class healthcontroller {
-    
+
     @GetMapping("/health")
     public ResponseEntity<?> health() {
         return ResponseEntity.ok("Backend is running!");
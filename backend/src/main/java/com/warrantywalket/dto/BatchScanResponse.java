@@ -0,0 +1,16 @@
+package com.warrantywalket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchScanResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchScanResult> results; // Same order as the uploaded files
+}
@@ -0,0 +1,16 @@
+package com.warrantywalket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchScanResult {
+
+    private String filename;
+    private boolean success;
+    private WarrantyResponse warranty;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.warrantywalket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ScanJobResponse {
+
+    private String jobId;
+    private String status; // "QUEUED", "RUNNING", "DONE", "FAILED"
+    private WarrantyResponse warranty;
+    private String error;
+}
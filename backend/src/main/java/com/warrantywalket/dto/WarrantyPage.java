@@ -0,0 +1,14 @@
+package com.warrantywalket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class WarrantyPage {
+
+    private List<WarrantyResponse> items;
+    private String nextCursor; // null on the last page
+}
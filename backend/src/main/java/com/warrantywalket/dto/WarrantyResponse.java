@@ -12,6 +12,8 @@ public class WarrantyResponse {
     private String serialNumber;
     private String modelNumber;
     private String assetPrice;
+    private Long priceMinor;
+    private String priceCurrency;
     private String warrantyPeriod;
     private String paymentMethod;
     private String merchantName;
@@ -19,5 +21,6 @@ public class WarrantyResponse {
     private LocalDate expiryDate;
     private Long daysRemaining;
     private String status;
-    private String imagePath;
+    private String imageUrl;
+    private String thumbnailUrl;
 }
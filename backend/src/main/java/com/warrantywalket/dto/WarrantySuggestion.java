@@ -0,0 +1,18 @@
+package com.warrantywalket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarrantySuggestion {
+
+    private String id;
+    private String productName;
+    private String merchantName;
+    private String modelNumber;
+    private String serialNumber;
+    private String invoiceNumber;
+}
@@ -0,0 +1,19 @@
+package com.warrantywalket.dto;
+
+import com.warrantywalket.model.MerchantCount;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class WarrantySummaryResponse {
+
+    private long total;
+    private Map<String, Long> statusCounts;
+    private double valueCovered;
+    private long expiringThisMonth;
+    private List<MerchantCount> topMerchants;
+    private LocalDate asOf;
+}
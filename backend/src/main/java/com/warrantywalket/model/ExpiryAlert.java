@@ -0,0 +1,43 @@
+package com.warrantywalket.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One expiry reminder, claimed before it is sent; the id makes each reminder unique across restarts
+// and instances
+@Data
+@NoArgsConstructor
+@Document(collection = "expiry_alerts")
+public class ExpiryAlert {
+
+    @Id
+    private String id; // "<warrantyId>:<daysBefore>"
+
+    private String warrantyId;
+    private String userId;
+    private int daysBefore;
+    private LocalDate expiryDate;
+
+    private String status; // "SENDING", "SENT"
+    private LocalDateTime claimedAt;
+    private LocalDateTime sentAt;
+
+    public ExpiryAlert(String warrantyId, String userId, int daysBefore, LocalDate expiryDate) {
+        this.id = idFor(warrantyId, daysBefore);
+        this.warrantyId = warrantyId;
+        this.userId = userId;
+        this.daysBefore = daysBefore;
+        this.expiryDate = expiryDate;
+        this.status = "SENDING";
+        this.claimedAt = LocalDateTime.now();
+    }
+
+    public static String idFor(String warrantyId, int daysBefore) {
+        return warrantyId + ":" + daysBefore;
+    }
+}
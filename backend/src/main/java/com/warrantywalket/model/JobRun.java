@@ -0,0 +1,35 @@
+package com.warrantywalket.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Document(collection = "job_runs")
+public class JobRun {
+
+    @Id
+    private String id; // job name
+
+    private String status; // "RUNNING", "COMPLETED", "FAILED"
+
+    // Day the job last finished for; the next run resumes from here
+    private LocalDate lastCompletedDate;
+
+    // Stats of the most recent run
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+    private Long expiredCount;
+    private Long expiringSoonCount;
+    private String error;
+
+    public JobRun(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,14 @@
+package com.warrantywalket.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantCount {
+
+    private String name;
+    private long count;
+}
@@ -0,0 +1,29 @@
+package com.warrantywalket.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ocr_results")
+public class OcrResult {
+
+    // SHA-256 of the uploaded image bytes
+    @Id
+    private String contentHash;
+
+    // Raw field map returned by ocr_service.py
+    private Map<String, String> fields;
+
+    // Stored image that produced these fields, reused by repeat uploads
+    private String imagePath;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package com.warrantywalket.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// A token revoked by logout, shared by every instance of both stacks. Mongo drops the document once the
+// token would have expired anyway.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+
+    // The token's jti
+    @Id
+    private String tokenId;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    // Instances pull the revocations made since their last sync by this
+    @Indexed
+    private Date revokedAt;
+}
@@ -0,0 +1,21 @@
+package com.warrantywalket.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Bumped whenever a user's warranty lists change; the list endpoints derive their ETag from it
+@Data
+@NoArgsConstructor
+@Document(collection = "wallet_versions")
+public class WalletVersion {
+
+    @Id
+    private String userId;
+
+    private long version;
+    private LocalDateTime updatedAt;
+}
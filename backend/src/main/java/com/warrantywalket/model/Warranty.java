@@ -4,15 +4,31 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "warranties")
+@CompoundIndexes({
+        // Per-user list in expiry order, with _id as the keyset tiebreaker; replaces user_expiry_idx
+        @CompoundIndex(name = "user_expiry_id_idx", def = "{'userId': 1, 'expiryDate': 1, '_id': 1}"),
+        // Cross-user expiry ranges for the daily status rollover
+        @CompoundIndex(name = "expiry_status_idx", def = "{'expiryDate': 1, 'status': 1}"),
+        // Cross-user keyset scan in expiry order for the expiry alerts
+        @CompoundIndex(name = "expiry_id_idx", def = "{'expiryDate': 1, '_id': 1}"),
+        // Price range filters and value ordering on the warranty list
+        @CompoundIndex(name = "user_price_idx", def = "{'userId': 1, 'priceMinor': 1, '_id': 1}"),
+        // Per-user full-text search; queries must filter on userId to use it
+        @CompoundIndex(name = "user_text_idx", def = "{'userId': 1, 'productName': 'text', 'merchantName': 'text', "
+                + "'modelNumber': 'text', 'serialNumber': 'text', 'invoiceNumber': 'text'}")
+})
 public class Warranty {
 
     @Id
@@ -25,12 +41,16 @@ public class Warranty {
     private LocalDate invoiceDate;
     private String serialNumber;
     private String modelNumber;
-    private String assetPrice;
+    private String assetPrice; // As read by OCR, e.g. "Rs. 45,999.00"
     private String warrantyPeriod; // e.g., "1 year", "6 months"
     private String paymentMethod;
     private String merchantName;
     private String productName;
 
+    // Parsed from assetPrice; priceMinor is null when the text is not an amount
+    private Long priceMinor; // In the currency's minor units, e.g. 4599900 paise
+    private String priceCurrency; // ISO 4217 code
+
     // Calculated Fields
     private LocalDate expiryDate;
     private Long daysRemaining;
@@ -38,6 +58,8 @@ public class Warranty {
 
     // Image Storage
     private String imagePath;
+    private String contentHash; // SHA-256 of the image, served as its ETag
+    private List<Integer> thumbnailSizes; // Thumbnails written next to the image; null until generated
 
     // Metadata
     private LocalDateTime createdAt;
@@ -0,0 +1,36 @@
+package com.warrantywalket.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Materialized dashboard numbers for one user, relative to computedFor
+@Data
+@NoArgsConstructor
+@Document(collection = "warranty_summaries")
+public class WarrantySummary {
+
+    @Id
+    private String userId;
+
+    private long total;
+    private Map<String, Long> statusCounts = new HashMap<>(); // ACTIVE, EXPIRING_SOON, EXPIRED, UNKNOWN
+    private double valueCovered; // Sum of prices of warranties that have not expired
+    private long expiringThisMonth;
+    private List<MerchantCount> merchants = new ArrayList<>(); // Every merchant, most warranties first
+
+    private LocalDate computedFor;
+    private LocalDateTime updatedAt;
+
+    public WarrantySummary(String userId) {
+        this.userId = userId;
+    }
+}
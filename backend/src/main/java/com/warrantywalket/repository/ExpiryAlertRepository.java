@@ -0,0 +1,9 @@
+package com.warrantywalket.repository;
+
+import com.warrantywalket.model.ExpiryAlert;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExpiryAlertRepository extends MongoRepository<ExpiryAlert, String>, ExpiryAlertRepositoryCustom {
+}
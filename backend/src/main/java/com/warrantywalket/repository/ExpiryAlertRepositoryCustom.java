@@ -0,0 +1,22 @@
+package com.warrantywalket.repository;
+
+import com.warrantywalket.model.ExpiryAlert;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+public interface ExpiryAlertRepositoryCustom {
+
+    // Inserts the claim; false when the reminder is already claimed
+    boolean claim(ExpiryAlert alert);
+
+    // Takes over a claim still SENDING since before staleBefore, left by a sender that died mid-send.
+    // Atomic, so only one instance wins; returns whether this caller did.
+    boolean reclaimStale(String id, LocalDateTime staleBefore);
+
+    void markSent(String id);
+
+    // Ids among the given ones whose reminder has been sent
+    Set<String> findSentIds(Collection<String> ids);
+}
@@ -0,0 +1,58 @@
+package com.warrantywalket.repository;
+
+import com.warrantywalket.model.ExpiryAlert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ExpiryAlertRepositoryImpl implements ExpiryAlertRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean claim(ExpiryAlert alert) {
+        try {
+            mongoTemplate.insert(alert);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean reclaimStale(String id, LocalDateTime staleBefore) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("status").is("SENDING")
+                .and("claimedAt").lt(staleBefore));
+        return mongoTemplate.updateFirst(query, Update.update("claimedAt", LocalDateTime.now()), ExpiryAlert.class)
+                .getModifiedCount() == 1;
+    }
+
+    @Override
+    public void markSent(String id) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().set("status", "SENT").set("sentAt", LocalDateTime.now()),
+                ExpiryAlert.class);
+    }
+
+    @Override
+    public Set<String> findSentIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and("status").is("SENT"));
+        query.fields().include("_id");
+
+        return mongoTemplate.find(query, ExpiryAlert.class).stream()
+                .map(ExpiryAlert::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -0,0 +1,9 @@
+package com.warrantywalket.repository;
+
+import com.warrantywalket.model.JobRun;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobRunRepository extends MongoRepository<JobRun, String> {
+}
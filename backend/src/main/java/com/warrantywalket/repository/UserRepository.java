@@ -4,6 +4,8 @@ import com.warrantywalket.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +13,8 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     Optional<User> findByUsername(String username);
 
+    List<User> findByUsernameIn(Collection<String> usernames);
+
     Optional<User> findByEmail(String email);
 
     Boolean existsByUsername(String username);
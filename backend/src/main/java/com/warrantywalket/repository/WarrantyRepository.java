@@ -2,13 +2,15 @@ package com.warrantywalket.repository;
 
 import com.warrantywalket.model.Warranty;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface WarrantyRepository extends MongoRepository<Warranty, String> {
+public interface WarrantyRepository extends MongoRepository<Warranty, String>, WarrantyRepositoryCustom {
 
     List<Warranty> findByUserId(String userId);
 
@@ -19,4 +21,20 @@ public interface WarrantyRepository extends MongoRepository<Warranty, String> {
     List<Warranty> findByUserIdAndExpiryDateAfter(String userId, LocalDate date);
 
     List<Warranty> findByUserIdOrderByExpiryDateAsc(String userId);
+
+    // Backed by a Mongo cursor; callers must close the stream
+    Stream<Warranty> streamByUserIdOrderByExpiryDateAscIdAsc(String userId);
+
+    // Range queries below are served by the (userId, expiryDate, _id) compound index
+
+    @Query(value = "{ 'userId': ?0, 'expiryDate': { $gte: ?1 } }", sort = "{ 'expiryDate': 1 }")
+    List<Warranty> findActive(String userId, LocalDate today);
+
+    @Query(value = "{ 'userId': ?0, 'expiryDate': { $gte: ?1, $lte: ?2 } }", sort = "{ 'expiryDate': 1 }")
+    List<Warranty> findExpiringBetween(String userId, LocalDate from, LocalDate to);
+
+    @Query(value = "{ 'userId': ?0, 'expiryDate': { $lt: ?1 } }", sort = "{ 'expiryDate': 1 }")
+    List<Warranty> findExpired(String userId, LocalDate today);
+
+    boolean existsByImagePathAndIdNot(String imagePath, String id);
 }
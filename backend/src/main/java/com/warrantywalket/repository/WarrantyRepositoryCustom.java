@@ -0,0 +1,39 @@
+package com.warrantywalket.repository;
+
+import com.warrantywalket.model.Warranty;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface WarrantyRepositoryCustom {
+
+    // Keyset page in (expiryDate, id) order; pass a null afterId for the first page. minPrice and maxPrice
+    // are inclusive bounds on priceMinor, null for none; a limit of 0 returns every match.
+    List<Warranty> findPageAfter(String userId, LocalDate afterExpiryDate, String afterId,
+                                 Long minPrice, Long maxPrice, int limit);
+
+    // Keyset page in (priceMinor, id) order, served by the (userId, priceMinor, _id) index. Only
+    // warranties with a parsed price are returned.
+    List<Warranty> findPageByPriceAfter(String userId, boolean descending, Long afterPrice, String afterId,
+                                        Long minPrice, Long maxPrice, int limit);
+
+    // Cross-user keyset page in (expiryDate, id) order up to and including the through date, served by the
+    // (expiryDate, _id) index. A null afterId starts after every warranty expiring on afterExpiryDate.
+    // Only the fields the expiry alerts need are loaded.
+    List<Warranty> findExpiringAfter(LocalDate afterExpiryDate, String afterId, LocalDate through, int limit);
+
+    // Ids among the given ones that still exist, without loading the documents
+    Set<String> findExistingIds(Collection<String> ids);
+
+    // $text search over the user's warranties, best matches first; any of the words may match
+    List<Warranty> searchText(String userId, String words, int limit);
+
+    // Sets only contentHash, and only while the document has none, so it never overwrites other fields
+    void setContentHashIfMissing(String id, String contentHash);
+
+    // Writes the computed expiryDate, daysRemaining, status and updatedAt of warranties that had no stored
+    // expiry date, as one unordered bulk of targeted $sets; documents given one meanwhile are left alone
+    void setMissingExpiry(List<Warranty> warranties);
+}
@@ -0,0 +1,155 @@
+package com.warrantywalket.repository;
+
+import com.warrantywalket.model.Warranty;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class WarrantyRepositoryImpl implements WarrantyRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Warranty> findPageAfter(String userId, LocalDate afterExpiryDate, String afterId,
+                                        Long minPrice, Long maxPrice, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (minPrice != null || maxPrice != null) {
+            criteria = new Criteria().andOperator(criteria, priceRange(minPrice, maxPrice));
+        }
+
+        if (afterId != null) {
+            Object id = ObjectId.isValid(afterId) ? new ObjectId(afterId) : afterId;
+
+            // Mongo sorts missing expiry dates first, so they form their own leading keyset segment
+            Criteria after;
+            if (afterExpiryDate == null) {
+                after = new Criteria().orOperator(
+                        Criteria.where("expiryDate").is(null).and("_id").gt(id),
+                        Criteria.where("expiryDate").ne(null));
+            } else {
+                after = new Criteria().orOperator(
+                        Criteria.where("expiryDate").gt(afterExpiryDate),
+                        Criteria.where("expiryDate").is(afterExpiryDate).and("_id").gt(id));
+            }
+            criteria = new Criteria().andOperator(criteria, after);
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "expiryDate", "_id"))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Warranty.class);
+    }
+
+    @Override
+    public List<Warranty> findPageByPriceAfter(String userId, boolean descending, Long afterPrice, String afterId,
+                                               Long minPrice, Long maxPrice, int limit) {
+        Criteria criteria = new Criteria().andOperator(
+                Criteria.where("userId").is(userId),
+                priceRange(minPrice, maxPrice));
+
+        if (afterId != null) {
+            Object id = ObjectId.isValid(afterId) ? new ObjectId(afterId) : afterId;
+            Criteria after = descending
+                    ? new Criteria().orOperator(
+                            Criteria.where("priceMinor").lt(afterPrice),
+                            Criteria.where("priceMinor").is(afterPrice).and("_id").lt(id))
+                    : new Criteria().orOperator(
+                            Criteria.where("priceMinor").gt(afterPrice),
+                            Criteria.where("priceMinor").is(afterPrice).and("_id").gt(id));
+            criteria = new Criteria().andOperator(criteria, after);
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = Query.query(criteria)
+                .with(Sort.by(direction, "priceMinor", "_id"))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Warranty.class);
+    }
+
+    @Override
+    public List<Warranty> findExpiringAfter(LocalDate afterExpiryDate, String afterId, LocalDate through, int limit) {
+        Criteria after = afterId == null
+                ? Criteria.where("expiryDate").gt(afterExpiryDate)
+                : new Criteria().orOperator(
+                        Criteria.where("expiryDate").gt(afterExpiryDate),
+                        Criteria.where("expiryDate").is(afterExpiryDate)
+                                .and("_id").gt(ObjectId.isValid(afterId) ? new ObjectId(afterId) : afterId));
+
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("expiryDate").lte(through), after))
+                .with(Sort.by(Sort.Direction.ASC, "expiryDate", "_id"))
+                .limit(limit);
+        query.fields().include("userId", "expiryDate", "productName", "merchantName");
+
+        return mongoTemplate.find(query, Warranty.class);
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+
+        return mongoTemplate.find(query, Warranty.class).stream()
+                .map(Warranty::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @Override
+    public List<Warranty> searchText(String userId, String words, int limit) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(words))
+                .sortByScore()
+                .addCriteria(Criteria.where("userId").is(userId))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Warranty.class);
+    }
+
+    @Override
+    public void setContentHashIfMissing(String id, String contentHash) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("contentHash").is(null));
+        mongoTemplate.updateFirst(query, Update.update("contentHash", contentHash), Warranty.class);
+    }
+
+    @Override
+    public void setMissingExpiry(List<Warranty> warranties) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Warranty.class);
+        for (Warranty warranty : warranties) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(warranty.getId()).and("expiryDate").is(null)),
+                    new Update()
+                            .set("expiryDate", warranty.getExpiryDate())
+                            .set("daysRemaining", warranty.getDaysRemaining())
+                            .set("status", warranty.getStatus())
+                            .set("updatedAt", warranty.getUpdatedAt()));
+        }
+        bulk.execute();
+    }
+
+    // Missing and null prices never match, even with no bounds
+    private Criteria priceRange(Long minPrice, Long maxPrice) {
+        Criteria range = Criteria.where("priceMinor").ne(null);
+        if (minPrice != null) {
+            range = range.gte(minPrice);
+        }
+        if (maxPrice != null) {
+            range = range.lte(maxPrice);
+        }
+        return range;
+    }
+}
@@ -2,37 +2,155 @@ package com.warrantywalket.security;
 
 import com.warrantywalket.model.User;
 import com.warrantywalket.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.user-cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    private final Map<String, CachedUser> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CustomUserDetailsService(@Value("${auth.user-cache.max-entries:10000}") int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("cache.size", this, CustomUserDetailsService::cacheSize).tag("cache", "users").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", "users", "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", "users", "result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", "users").register(meterRegistry);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        CachedUser cached;
+        synchronized (cache) {
+            cached = cache.get(username);
+            if (cached != null && cached.expiresAt < System.currentTimeMillis()) {
+                cache.remove(username);
+                cached = null;
+            }
+        }
+
+        if (cached != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+
+            cached = new CachedUser(
+                    user.getId(),
+                    user.getEmail(),
+                    user.getUsername(),
+                    user.getPassword(),
+                    mapRolesToAuthorities(user.getRoles()),
+                    System.currentTimeMillis() + cacheTtlMs);
+
+            synchronized (cache) {
+                cache.put(username, cached);
+            }
+        }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                mapRolesToAuthorities(user.getRoles()));
+        // Always hand out a fresh instance: authentication erases credentials on the object it is given
+        return new UserPrincipal(
+                cached.id,
+                cached.email,
+                cached.username,
+                cached.password,
+                cached.authorities);
     }
 
-    private Collection<? extends GrantedAuthority> mapRolesToAuthorities(Collection<String> roles) {
+    // Called by DaoAuthenticationProvider after a login whose stored hash needs upgrading
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+
+        user.setPassword(newPassword);
+        userRepository.save(user); // Evicts the cached entry
+
+        return loadUserByUsername(user.getUsername());
+    }
+
+    // Must be called whenever a user's password or roles change
+    public void evictUser(String username) {
+        synchronized (cache) {
+            if (cache.remove(username) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private List<GrantedAuthority> mapRolesToAuthorities(Collection<String> roles) {
         return roles.stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
     }
+
+    private static class CachedUser {
+        private final String id;
+        private final String email;
+        private final String username;
+        private final String password;
+        private final List<GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        private CachedUser(String id, String email, String username, String password,
+                           List<GrantedAuthority> authorities, long expiresAt) {
+            this.id = id;
+            this.email = email;
+            this.username = username;
+            this.password = password;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package com.warrantywalket.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,13 +22,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final MeterRegistry meterRegistry;
 
     public JwtAuthenticationFilter(
             JwtTokenProvider tokenProvider,
-            CustomUserDetailsService customUserDetailsService) {
+            CustomUserDetailsService customUserDetailsService,
+            MeterRegistry meterRegistry) {
 
         this.tokenProvider = tokenProvider;
         this.customUserDetailsService = customUserDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -42,18 +48,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
 
+        // Only the authentication work is timed, not the rest of the chain
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "anonymous";
+
         try {
 
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt)
-                    && tokenProvider.validateToken(jwt)) {
+            Claims claims = StringUtils.hasText(jwt)
+                    ? tokenProvider.verifyToken(jwt)
+                    : null;
+
+            if (claims != null) {
 
-                String username =
-                        tokenProvider.getUsernameFromToken(jwt);
+                String username = claims.getSubject();
 
-                UserDetails userDetails =
-                        customUserDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = tokenProvider.isStateless()
+                        ? tokenProvider.toPrincipal(claims)
+                        : customUserDetailsService.loadUserByUsername(username);
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
@@ -67,14 +80,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 SecurityContextHolder.getContext()
                         .setAuthentication(authentication);
+
+                result = "authenticated";
+
+            } else if (StringUtils.hasText(jwt)) {
+
+                result = "rejected";
             }
 
         } catch (Exception ex) {
 
+            result = "error";
             logger.error("JWT authentication failed", ex);
 
         }
 
+        sample.stop(meterRegistry.timer("auth.filter", "result", result));
+
         filterChain.doFilter(request, response);
     }
 
@@ -2,13 +2,21 @@ package com.warrantywalket.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
@@ -19,44 +27,115 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Stateless mode trusts the claims alone, so tokens are kept short-lived
+    @Value("${auth.stateless.enabled:false}")
+    private boolean stateless;
+
+    @Value("${auth.stateless.token-expiration-ms:900000}")
+    private long statelessExpiration;
+
+    @Autowired
+    private TokenDenyList denyList;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private VerifiedTokenCache verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = new VerifiedTokenCache(cacheMaxEntries);
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
 
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        Date expiryDate = new Date(now.getTime() + (stateless ? statelessExpiration : jwtExpiration));
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userPrincipal.getUsername())
+                .claim("roles", userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toList()))
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .expiration(expiryDate);
+
+        if (userPrincipal instanceof UserPrincipal) {
+            builder.claim("uid", ((UserPrincipal) userPrincipal).getId());
+        }
+
+        return builder
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    // Builds the principal purely from verified claims, without touching the user store
+    public UserPrincipal toPrincipal(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        List<GrantedAuthority> authorities = roles == null
+                ? Collections.emptyList()
+                : roles.stream()
+                        .map(role -> new SimpleGrantedAuthority(role.toString()))
+                        .collect(Collectors.toList());
+
+        return new UserPrincipal(
+                claims.get("uid", String.class),
+                null,
+                claims.getSubject(),
+                "",
+                authorities);
+    }
+
+    public void revokeToken(String token) {
+        Claims claims = verifyToken(token);
+        if (claims != null && claims.getId() != null) {
+            denyList.deny(claims.getId(), claims.getExpiration());
+        }
+    }
+
+    // Verifies the signature and expiry with a single parse, or serves a recent verification from cache.
+    // Returns null for an invalid token.
+    public Claims verifyToken(String token) {
+        Claims claims = verifiedTokens.get(token);
+
+        if (claims == null) {
+            try {
+                claims = parser.parseSignedClaims(token).getPayload();
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            verifiedTokens.put(token, claims);
+        }
 
+        if (denyList.isDenied(claims.getId())) {
+            return null;
+        }
+        return claims;
+    }
+
+    public String getUsernameFromToken(String token) {
+        Claims claims = verifyToken(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
         return claims.getSubject();
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            // Log the exception
-        }
-        return false;
+        return verifyToken(authToken) != null;
     }
 }
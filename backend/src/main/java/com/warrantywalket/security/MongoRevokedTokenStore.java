@@ -0,0 +1,30 @@
+package com.warrantywalket.security;
+
+import com.warrantywalket.model.RevokedToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+@Component
+public class MongoRevokedTokenStore implements RevokedTokenStore {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void save(String tokenId, Date expiration) {
+        // Keyed by jti, so revoking the same token twice is harmless
+        mongoTemplate.save(new RevokedToken(tokenId, expiration, new Date()));
+    }
+
+    @Override
+    public List<RevokedToken> findRevokedSince(Date since) {
+        Query query = Query.query(Criteria.where("revokedAt").gte(since).and("expiresAt").gt(new Date()));
+        return mongoTemplate.find(query, RevokedToken.class);
+    }
+}
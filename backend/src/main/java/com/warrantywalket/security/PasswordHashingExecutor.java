@@ -0,0 +1,42 @@
+package com.warrantywalket.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Dedicated, bounded pool for BCrypt work (login and signup) so a login storm cannot starve request threads
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingExecutor(
+            @Value("${auth.hashing.threads:2}") int threads,
+            @Value("${auth.hashing.queue-capacity:32}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "password-hashing-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Throws RejectedExecutionException when the pool and its queue are full
+    public <T> CompletableFuture<T> submit(Supplier<T> task) throws RejectedExecutionException {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,16 @@
+package com.warrantywalket.security;
+
+import com.warrantywalket.model.RevokedToken;
+
+import java.util.Date;
+import java.util.List;
+
+// Where TokenDenyList shares revocations between instances; the servlet and reactive stacks each provide
+// one over their own Mongo driver
+public interface RevokedTokenStore {
+
+    void save(String tokenId, Date expiration);
+
+    // Revocations recorded since the given time that have not expired yet
+    List<RevokedToken> findRevokedSince(Date since);
+}
@@ -0,0 +1,111 @@
+package com.warrantywalket.security;
+
+import com.warrantywalket.model.RevokedToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Revoked token ids (jti), kept until the token would have expired anyway. Checks only read the in-memory
+// copy. Revocations are also written to the RevokedTokenStore, and every instance, servlet or reactive,
+// pulls the ones made elsewhere every auth.deny-list.sync-interval-ms, on a thread of its own so long
+// @Scheduled jobs on the shared scheduler thread cannot hold it up.
+@Component
+public class TokenDenyList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenyList.class);
+
+    // Each sync reads back this far past the previous one, so a writer with a slightly skewed clock is
+    // not missed
+    private static final long SYNC_OVERLAP_MS = 60000;
+
+    private final Map<String, Long> deniedUntil = new ConcurrentHashMap<>();
+
+    // Absent when the list is built by hand, as in the benchmarks
+    @Autowired(required = false)
+    private RevokedTokenStore store;
+
+    @Value("${auth.deny-list.sync-interval-ms:5000}")
+    private long syncIntervalMs;
+
+    private ScheduledExecutorService syncExecutor;
+
+    // Local time the last successful sync started; 0 loads every revocation that has not expired
+    private volatile long syncedFrom;
+
+    @PostConstruct
+    public void start() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            // The scheduled sync catches up once the store is reachable
+            log.warn("Could not load revoked tokens at startup", e);
+        }
+
+        if (store != null) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "deny-list-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncExecutor.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+    }
+
+    public void deny(String tokenId, Date expiration) {
+        deniedUntil.put(tokenId, expiration.getTime());
+        if (store != null) {
+            store.save(tokenId, expiration);
+        }
+    }
+
+    public boolean isDenied(String tokenId) {
+        return tokenId != null && deniedUntil.containsKey(tokenId);
+    }
+
+    public void sync() {
+        if (store == null) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        Date since = new Date(syncedFrom == 0 ? 0 : syncedFrom - SYNC_OVERLAP_MS);
+        for (RevokedToken revoked : store.findRevokedSince(since)) {
+            deniedUntil.put(revoked.getTokenId(), revoked.getExpiresAt().getTime());
+        }
+        syncedFrom = started;
+    }
+
+    // A scheduled executor stops running a task once it throws, so failures are logged and retried here
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Could not sync revoked tokens", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.deny-list.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        deniedUntil.values().removeIf(expiresAt -> expiresAt < now);
+    }
+}
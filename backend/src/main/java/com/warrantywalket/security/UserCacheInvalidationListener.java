@@ -0,0 +1,20 @@
+package com.warrantywalket.security;
+
+import com.warrantywalket.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Drops the cached UserDetails whenever a user document is saved, e.g. after a password or role change
+@Component
+public class UserCacheInvalidationListener extends AbstractMongoEventListener<User> {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        userDetailsService.evictUser(event.getSource().getUsername());
+    }
+}
@@ -0,0 +1,28 @@
+package com.warrantywalket.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// UserDetails that also carries the user's id and email, so callers don't need another user lookup
+public class UserPrincipal extends User {
+
+    private final String id;
+    private final String email;
+
+    public UserPrincipal(String id, String email, String username, String password,
+                         Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+        this.email = email;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,66 @@
+package com.warrantywalket.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU of recently verified tokens, keyed by a SHA-256 digest so raw tokens are never held.
+// Entries are only returned while the token's exp is still in the future.
+class VerifiedTokenCache {
+
+    private final Map<String, Claims> entries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    Claims get(String token) {
+        String key = digest(token);
+        synchronized (entries) {
+            Claims claims = entries.get(key);
+            if (claims == null) {
+                return null;
+            }
+            if (isExpired(claims)) {
+                entries.remove(key);
+                return null;
+            }
+            return claims;
+        }
+    }
+
+    void put(String token, Claims claims) {
+        // Tokens without exp would never leave the cache on their own
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        String key = digest(token);
+        synchronized (entries) {
+            entries.put(key, claims);
+        }
+    }
+
+    private boolean isExpired(Claims claims) {
+        return !claims.getExpiration().after(new Date());
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.dto.BatchScanResponse;
+import com.warrantywalket.dto.BatchScanResult;
+import com.warrantywalket.dto.WarrantyResponse;
+import com.warrantywalket.model.Warranty;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class BatchScanService {
+
+    @Autowired
+    private WarrantyService warrantyService;
+
+    @Value("${scan.batch.concurrency:4}")
+    private int concurrency;
+
+    @Value("${scan.batch.max-files:50}")
+    private int maxFiles;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency,
+                r -> new Thread(r, "batch-scan-" + threadCount.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public BatchScanResponse scanAll(List<MultipartFile> files, String userId) {
+        List<BatchScanResult> results = new ArrayList<>(files.size());
+        List<Future<Warranty>> pending = new ArrayList<>(files.size());
+
+        // Multipart temp files only live as long as the request, so store them before fanning out
+        for (MultipartFile file : files) {
+            BatchScanResult result = new BatchScanResult();
+            result.setFilename(file.getOriginalFilename());
+            results.add(result);
+
+            try {
+                StoredUpload upload = warrantyService.storeUpload(file);
+                pending.add(executor.submit(() -> warrantyService.buildWarranty(upload, userId)));
+            } catch (Exception e) {
+                result.setError("Failed to store file: " + e.getMessage());
+                pending.add(null);
+            }
+        }
+
+        List<Warranty> scanned = new ArrayList<>();
+        List<BatchScanResult> scannedResults = new ArrayList<>();
+
+        for (int i = 0; i < pending.size(); i++) {
+            Future<Warranty> future = pending.get(i);
+            if (future == null) {
+                continue;
+            }
+
+            BatchScanResult result = results.get(i);
+            try {
+                scanned.add(future.get());
+                scannedResults.add(result);
+            } catch (ExecutionException e) {
+                result.setError("Failed to scan bill: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while scanning batch", e);
+            }
+        }
+
+        // One bulk insert for every bill that scanned cleanly
+        List<WarrantyResponse> saved = warrantyService.saveScannedWarranties(scanned);
+        for (int i = 0; i < saved.size(); i++) {
+            BatchScanResult result = scannedResults.get(i);
+            result.setSuccess(true);
+            result.setWarranty(saved.get(i));
+        }
+
+        int succeeded = saved.size();
+        return new BatchScanResponse(files.size(), succeeded, files.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,388 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.ExpiryAlert;
+import com.warrantywalket.model.User;
+import com.warrantywalket.model.Warranty;
+import com.warrantywalket.repository.ExpiryAlertRepository;
+import com.warrantywalket.repository.UserRepository;
+import com.warrantywalket.repository.WarrantyRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+// Sends reminders before warranties expire, 30, 7 and 1 days ahead by default. Each reminder covers the
+// days between its offset and the next smaller one, so a warranty scanned 5 days before expiry still gets
+// its 7-day reminder but no 30-day one.
+//
+// Every offset has its own keyset cursor over (expiryDate, _id) that only moves forward: each run loads the
+// warranties that have come into range since the last run, plus a day of lookahead, into a bounded queue
+// ordered by reminder date. Nothing is scanned twice and no query touches warranties outside the window.
+// Reminders are claimed in expiry_alerts before sending, which deduplicates them across restarts and
+// instances; a restart only reloads the current window and skips what was already sent. A claim still
+// SENDING after alerts.claim-timeout-ms belongs to a sender that died mid-send and is taken over.
+@Service
+public class ExpiryAlertEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiryAlertEngine.class);
+
+    @Autowired
+    private WarrantyRepository warrantyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExpiryAlertRepository expiryAlertRepository;
+
+    @Autowired
+    private ExpiryNotifier notifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${alerts.days-before:30,7,1}")
+    private int[] daysBefore;
+
+    @Value("${alerts.lookahead-days:1}")
+    private int lookaheadDays;
+
+    @Value("${alerts.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${alerts.batch-size:500}")
+    private int batchSize;
+
+    @Value("${alerts.max-attempts:3}")
+    private int maxAttempts;
+
+    // Longer than any notifier call can take, so a live sender never loses its claim
+    @Value("${alerts.claim-timeout-ms:600000}")
+    private long claimTimeoutMs;
+
+    private final PriorityQueue<PendingAlert> queue = new PriorityQueue<>(
+            Comparator.comparing((PendingAlert alert) -> alert.fireDate)
+                    .thenComparing(alert -> alert.expiryDate));
+
+    // Scans that happened since the last run; their expiry may be behind a cursor already
+    private final Queue<Warranty> added = new ConcurrentLinkedQueue<>();
+
+    // Per offset, parallel to daysBefore: position of the last warranty loaded. A null id means every
+    // warranty expiring on or before the date has been loaded.
+    private LocalDate[] cursorDates;
+    private String[] cursorIds;
+
+    // Reminders whose send failed, or that another sender was holding, in the current run; they go back
+    // on the queue when it ends
+    private final List<PendingAlert> failed = new ArrayList<>();
+    private int sent;
+
+    @PostConstruct
+    public void start() {
+        // Largest first, so daysBefore[i + 1] is the next smaller reminder
+        daysBefore = Arrays.stream(daysBefore).boxed()
+                .sorted((a, b) -> b - a)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        cursorDates = new LocalDate[daysBefore.length];
+        cursorIds = new String[daysBefore.length];
+
+        Gauge.builder("alerts.queue.size", queue, PriorityQueue::size)
+                .description("Expiry reminders loaded and waiting for their date")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.interval-ms:900000}",
+            initialDelayString = "${alerts.initial-delay-ms:60000}")
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            run(LocalDate.now());
+        } catch (RuntimeException e) {
+            // The cursors only advance past loaded warranties, so the next run picks up from here
+            log.error("Expiry alert run failed", e);
+        }
+    }
+
+    // Called after a scan is saved; cheap, the warranty is looked at on the next run
+    public void onWarrantyAdded(Warranty warranty) {
+        if (enabled && warranty.getExpiryDate() != null) {
+            added.add(warranty);
+        }
+    }
+
+    public synchronized int run(LocalDate today) {
+        long start = System.currentTimeMillis();
+        advanceCursors(today);
+        enqueueAdded(today);
+
+        // Due reminders first; a full queue is drained and refilled until nothing due is left
+        sent = 0;
+        boolean loaded;
+        boolean drained;
+        do {
+            loaded = false;
+            for (int i = 0; i < daysBefore.length; i++) {
+                loaded |= fill(i, today.plusDays(daysBefore[i]));
+            }
+            drained = drain(today);
+        } while (loaded || drained);
+
+        queue.addAll(failed);
+        failed.clear();
+
+        // Then the lookahead, so the next day's reminders go out without waiting on a query
+        for (int i = 0; i < daysBefore.length; i++) {
+            fill(i, today.plusDays(daysBefore[i] + lookaheadDays));
+        }
+
+        if (sent > 0) {
+            log.info("Sent {} expiry reminders in {} ms, {} queued",
+                    sent, System.currentTimeMillis() - start, queue.size());
+        }
+        return sent;
+    }
+
+    // Moves each cursor up to the start of its offset's range; expiries before that belong to a smaller one
+    private void advanceCursors(LocalDate today) {
+        for (int i = 0; i < daysBefore.length; i++) {
+            LocalDate beforeRange = today.plusDays(lowerBound(i) - 1);
+            if (cursorDates[i] == null || cursorDates[i].isBefore(beforeRange)) {
+                cursorDates[i] = beforeRange;
+                cursorIds[i] = null;
+            }
+        }
+    }
+
+    private void enqueueAdded(LocalDate today) {
+        Warranty warranty;
+        while ((warranty = added.poll()) != null) {
+            for (int i = 0; i < daysBefore.length; i++) {
+                // Warranties ahead of the cursor are loaded by fill() in order
+                if (inRange(i, warranty.getExpiryDate(), today) && behindCursor(i, warranty)) {
+                    queue.add(new PendingAlert(warranty, daysBefore[i]));
+                }
+            }
+        }
+    }
+
+    // Loads the offset's warranties up to the through date; returns whether anything new was read
+    private boolean fill(int index, LocalDate through) {
+        boolean loaded = false;
+
+        while (queue.size() < queueCapacity && !loadedThrough(index, through)) {
+            int limit = Math.min(batchSize, queueCapacity - queue.size());
+            List<Warranty> batch = warrantyRepository.findExpiringAfter(
+                    cursorDates[index], cursorIds[index], through, limit);
+
+            if (batch.size() < limit) {
+                // Everything up to the through date is loaded
+                cursorDates[index] = through;
+                cursorIds[index] = null;
+            } else {
+                Warranty last = batch.get(batch.size() - 1);
+                cursorDates[index] = last.getExpiryDate();
+                cursorIds[index] = last.getId();
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            loaded = true;
+            Set<String> alreadySent = sentIds(batch, daysBefore[index]);
+            for (Warranty warranty : batch) {
+                if (!alreadySent.contains(ExpiryAlert.idFor(warranty.getId(), daysBefore[index]))) {
+                    queue.add(new PendingAlert(warranty, daysBefore[index]));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // Sends every reminder that is due; returns whether any were taken off the queue
+    private boolean drain(LocalDate today) {
+        List<PendingAlert> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().fireDate.isAfter(today)) {
+            due.add(queue.poll());
+        }
+        if (due.isEmpty()) {
+            return false;
+        }
+
+        // Deleted warranties get no reminder
+        Set<String> existing = warrantyRepository.findExistingIds(
+                due.stream().map(alert -> alert.warrantyId).collect(Collectors.toSet()));
+        Map<String, String> emails = emailsByUsername(due);
+
+        for (PendingAlert alert : due) {
+            long daysRemaining = ChronoUnit.DAYS.between(today, alert.expiryDate);
+            int index = indexOf(alert.daysBefore);
+
+            // Held back so long that a smaller reminder is due instead
+            if (!existing.contains(alert.warrantyId) || index < 0 || daysRemaining < lowerBound(index)) {
+                continue;
+            }
+
+            SendOutcome outcome = send(alert, daysRemaining, emails.get(alert.userId));
+            if (outcome == SendOutcome.SENT) {
+                sent++;
+            } else if (outcome == SendOutcome.HELD) {
+                failed.add(alert);
+            } else if (outcome == SendOutcome.FAILED) {
+                if (++alert.attempts < maxAttempts) {
+                    failed.add(alert);
+                } else {
+                    log.error("Giving up on the {}-day reminder for warranty {} after {} attempts",
+                            alert.daysBefore, alert.warrantyId, alert.attempts);
+                }
+            }
+        }
+        return true;
+    }
+
+    // Claims the reminder, then sends it. A reminder someone else already sent counts as done; one they
+    // are still sending is HELD and looked at again next run, by when it is either sent or stale.
+    private SendOutcome send(PendingAlert alert, long daysRemaining, String email) {
+        ExpiryAlert claim = new ExpiryAlert(alert.warrantyId, alert.userId, alert.daysBefore, alert.expiryDate);
+        if (!expiryAlertRepository.claim(claim)) {
+            LocalDateTime staleBefore = LocalDateTime.now().minus(claimTimeoutMs, ChronoUnit.MILLIS);
+            if (!expiryAlertRepository.reclaimStale(claim.getId(), staleBefore)) {
+                boolean alreadySent = expiryAlertRepository.findById(claim.getId())
+                        .map(existing -> "SENT".equals(existing.getStatus()))
+                        .orElse(false);
+                return alreadySent ? SendOutcome.SENT_ELSEWHERE : SendOutcome.HELD;
+            }
+            log.info("Taking over the stale {}-day reminder claim for warranty {}", alert.daysBefore, alert.warrantyId);
+        }
+
+        ExpiryReminder reminder = new ExpiryReminder();
+        reminder.setUserId(alert.userId);
+        reminder.setEmail(email);
+        reminder.setWarrantyId(alert.warrantyId);
+        reminder.setProductName(alert.productName);
+        reminder.setMerchantName(alert.merchantName);
+        reminder.setExpiryDate(alert.expiryDate);
+        reminder.setDaysRemaining(daysRemaining);
+        reminder.setDaysBefore(alert.daysBefore);
+
+        try {
+            notifier.send(reminder);
+        } catch (RuntimeException e) {
+            expiryAlertRepository.deleteById(claim.getId());
+            meterRegistry.counter("alerts.sent", "days", String.valueOf(alert.daysBefore), "outcome", "failed")
+                    .increment();
+            log.warn("Sending the {}-day reminder for warranty {} failed", alert.daysBefore, alert.warrantyId, e);
+            return SendOutcome.FAILED;
+        }
+
+        expiryAlertRepository.markSent(claim.getId());
+        meterRegistry.counter("alerts.sent", "days", String.valueOf(alert.daysBefore), "outcome", "sent")
+                .increment();
+        return SendOutcome.SENT;
+    }
+
+    private Set<String> sentIds(List<Warranty> batch, int days) {
+        List<String> ids = batch.stream()
+                .map(warranty -> ExpiryAlert.idFor(warranty.getId(), days))
+                .collect(Collectors.toList());
+        return expiryAlertRepository.findSentIds(ids);
+    }
+
+    // One query for the whole batch instead of one per reminder
+    private Map<String, String> emailsByUsername(List<PendingAlert> alerts) {
+        Set<String> usernames = alerts.stream().map(alert -> alert.userId).collect(Collectors.toSet());
+
+        Map<String, String> emails = new HashMap<>();
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+            if (user.getEmail() != null) {
+                emails.put(user.getUsername(), user.getEmail());
+            }
+        }
+        return emails;
+    }
+
+    // Days remaining covered by the reminder at index: (next smaller offset, offset], down to expiry day
+    private int lowerBound(int index) {
+        return index + 1 < daysBefore.length ? daysBefore[index + 1] + 1 : 0;
+    }
+
+    private boolean inRange(int index, LocalDate expiryDate, LocalDate today) {
+        long daysRemaining = ChronoUnit.DAYS.between(today, expiryDate);
+        return daysRemaining >= lowerBound(index) && daysRemaining <= daysBefore[index];
+    }
+
+    private boolean loadedThrough(int index, LocalDate through) {
+        int byDate = cursorDates[index].compareTo(through);
+        return byDate > 0 || (byDate == 0 && cursorIds[index] == null);
+    }
+
+    private boolean behindCursor(int index, Warranty warranty) {
+        int byDate = warranty.getExpiryDate().compareTo(cursorDates[index]);
+        if (byDate != 0 || cursorIds[index] == null) {
+            return byDate <= 0;
+        }
+        // Same-length hex ObjectIds compare like the ObjectIds themselves
+        return warranty.getId().compareTo(cursorIds[index]) <= 0;
+    }
+
+    private int indexOf(int days) {
+        for (int i = 0; i < daysBefore.length; i++) {
+            if (daysBefore[i] == days) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private enum SendOutcome {
+        SENT, SENT_ELSEWHERE, FAILED, HELD
+    }
+
+    private static class PendingAlert {
+
+        private final String warrantyId;
+        private final String userId;
+        private final String productName;
+        private final String merchantName;
+        private final LocalDate expiryDate;
+        private final int daysBefore;
+        private final LocalDate fireDate;
+        private int attempts;
+
+        private PendingAlert(Warranty warranty, int daysBefore) {
+            this.warrantyId = warranty.getId();
+            this.userId = warranty.getUserId();
+            this.productName = warranty.getProductName();
+            this.merchantName = warranty.getMerchantName();
+            this.expiryDate = warranty.getExpiryDate();
+            this.daysBefore = daysBefore;
+            this.fireDate = expiryDate.minusDays(daysBefore);
+        }
+    }
+}
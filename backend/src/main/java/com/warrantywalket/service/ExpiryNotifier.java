@@ -0,0 +1,8 @@
+package com.warrantywalket.service;
+
+// Delivers expiry reminders; alerts.notifier picks the implementation. A send that throws is retried
+// on a later run of the alert engine.
+public interface ExpiryNotifier {
+
+    void send(ExpiryReminder reminder);
+}
@@ -0,0 +1,19 @@
+package com.warrantywalket.service;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// What a notifier is given for one reminder
+@Data
+public class ExpiryReminder {
+
+    private String userId;
+    private String email; // null when the user no longer exists
+    private String warrantyId;
+    private String productName;
+    private String merchantName;
+    private LocalDate expiryDate;
+    private long daysRemaining;
+    private int daysBefore; // The reminder this is: 30, 7 or 1 days before expiry by default
+}
@@ -0,0 +1,101 @@
+package com.warrantywalket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Shrinks uploads to a size Tesseract reads well before they reach the OCR script: the longest edge is
+// capped, the image is converted to grayscale and written as PNG. Only images smaller than min-edge
+// are upscaled, instead of the script doubling every photo.
+@Component
+public class ImageNormalizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageNormalizer.class);
+
+    @Value("${ocr.normalize.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ocr.normalize.max-edge:2000}")
+    private int maxEdge;
+
+    @Value("${ocr.normalize.min-edge:1000}")
+    private int minEdge;
+
+    // Writes a normalized copy to a temp file and returns it; the caller deletes it after OCR.
+    // Returns null when normalization is off or the image cannot be decoded, so the original is used.
+    public Path normalize(Path source) {
+        if (!enabled) {
+            return null;
+        }
+
+        try {
+            BufferedImage image = ImageFiles.read(source, maxEdge);
+            if (image == null) {
+                return null;
+            }
+
+            Path target = Files.createTempFile("ocr-", ".png");
+            try {
+                ImageIO.write(resizeToGrayscale(image), "png", target.toFile());
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(target);
+                throw e;
+            }
+            return target;
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not normalize {}, using the original for OCR", source, e);
+            return null;
+        }
+    }
+
+    private BufferedImage resizeToGrayscale(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = scaleFor(Math.max(width, height));
+
+        if (scale == 1.0 && image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Drawing onto a TYPE_BYTE_GRAY canvas does the colour conversion and the resize in one pass
+        BufferedImage gray = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = gray.createGraphics();
+        try {
+            // Transparent areas would otherwise come out black and be read as ink
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    scale > 1.0 ? RenderingHints.VALUE_INTERPOLATION_BICUBIC : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return gray;
+    }
+
+    private double scaleFor(int longest) {
+        if (longest > maxEdge) {
+            return (double) maxEdge / longest;
+        }
+        if (longest < minEdge) {
+            // Small images are brought up to min-edge, but never more than doubled
+            return Math.min(2.0, (double) minEdge / longest);
+        }
+        return 1.0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.Warranty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Drops indexes that were replaced under a new name. Auto index creation only adds indexes, so without
+// this an old definition would stay on existing databases and slow every write.
+@Service
+public class IndexMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexMigration.class);
+
+    // {userId, expiryDate}, replaced by user_expiry_id_idx which adds _id for keyset paging
+    private static final List<String> RETIRED_WARRANTY_INDEXES = List.of("user_expiry_idx");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropRetiredIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Warranty.class);
+            indexOps.getIndexInfo().stream()
+                    .filter(index -> RETIRED_WARRANTY_INDEXES.contains(index.getName()))
+                    .forEach(index -> {
+                        indexOps.dropIndex(index.getName());
+                        log.info("Dropped retired index {} on warranties", index.getName());
+                    });
+        } catch (RuntimeException e) {
+            // Never block startup on this; the next start tries again
+            log.error("Dropping retired warranty indexes failed", e);
+        }
+    }
+}
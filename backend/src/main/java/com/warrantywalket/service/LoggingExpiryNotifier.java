@@ -0,0 +1,21 @@
+package com.warrantywalket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Default notifier: writes reminders to the application log
+@Component
+@ConditionalOnProperty(name = "alerts.notifier", havingValue = "log", matchIfMissing = true)
+public class LoggingExpiryNotifier implements ExpiryNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingExpiryNotifier.class);
+
+    @Override
+    public void send(ExpiryReminder reminder) {
+        log.info("Warranty {} ({}) of {} expires on {}, {} days left",
+                reminder.getWarrantyId(), reminder.getProductName(), reminder.getUserId(),
+                reminder.getExpiryDate(), reminder.getDaysRemaining());
+    }
+}
@@ -0,0 +1,16 @@
+package com.warrantywalket.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+// No OCR slot came free within ocr.max-concurrent-wait-ms. Unlike a full scan queue, the scan was
+// accepted and waited its turn, so callers can tell the two apart.
+public class OcrBusyException extends RejectedExecutionException {
+
+    public OcrBusyException(String message) {
+        super(message);
+    }
+
+    public OcrBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,91 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.OcrResult;
+import com.warrantywalket.repository.OcrResultRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// OCR results keyed by image content hash: a bounded in-memory LRU in front of the ocr_results collection
+@Service
+public class OcrResultCache {
+
+    @Autowired
+    private OcrResultRepository ocrResultRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, OcrResult> lru;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public OcrResultCache(@Value("${ocr.cache.max-entries:1000}") int maxEntries) {
+        this.lru = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OcrResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // A store hit found the result in ocr_results after missing in memory
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("cache.size", this, OcrResultCache::size).tag("cache", "ocr_results").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", memoryHits, AtomicLong::get)
+                .tags("cache", "ocr_results", "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", storeHits, AtomicLong::get)
+                .tags("cache", "ocr_results", "result", "store_hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", "ocr_results", "result", "miss").register(meterRegistry);
+    }
+
+    public Optional<OcrResult> get(String contentHash) {
+        OcrResult result;
+        synchronized (lru) {
+            result = lru.get(contentHash);
+        }
+        if (result != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(result);
+        }
+
+        Optional<OcrResult> stored = ocrResultRepository.findById(contentHash);
+        if (stored.isPresent()) {
+            storeHits.incrementAndGet();
+            synchronized (lru) {
+                lru.put(contentHash, stored.get());
+            }
+        } else {
+            misses.incrementAndGet();
+        }
+        return stored;
+    }
+
+    public void put(String contentHash, Map<String, String> fields, String imagePath) {
+        OcrResult result = new OcrResult(contentHash, fields, imagePath, LocalDateTime.now());
+        ocrResultRepository.save(result);
+        synchronized (lru) {
+            lru.put(contentHash, result);
+        }
+    }
+
+    private int size() {
+        synchronized (lru) {
+            return lru.size();
+        }
+    }
+}
@@ -2,14 +2,21 @@ package com.warrantywalket.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class OcrService {
@@ -20,15 +27,79 @@ public class OcrService {
     @Value("${ocr.script.path}")
     private String scriptPath;
 
+    // OCR runs at once across request threads, scan jobs and batch scans. On virtual threads the
+    // request thread count no longer bounds this, so it is capped here instead.
+    @Value("${ocr.max-concurrent:${ocr.pool.size:2}}")
+    private int maxConcurrent;
+
+    @Value("${ocr.max-concurrent-wait-ms:30000}")
+    private long maxConcurrentWaitMs;
+
+    @Autowired
+    private OcrWorkerPool workerPool;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void registerMetrics() {
+        permits = new Semaphore(maxConcurrent, true);
+        meterRegistry.gauge("ocr.in_flight", inFlight);
+        Gauge.builder("ocr.waiting", permits, Semaphore::getQueueLength).register(meterRegistry);
+    }
+
     public Map<String, String> extractBillDetails(String imagePath) {
+        return extractBillDetails(imagePath, false);
+    }
+
+    // normalized: the image already went through ImageNormalizer, so the script skips its own upscale
+    public Map<String, String> extractBillDetails(String imagePath, boolean normalized) {
+        acquirePermit();
+
+        String mode = workerPool.isEnabled() ? "pool" : "process";
+        String outcome = "failure";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        inFlight.incrementAndGet();
+
+        try {
+            Map<String, String> result = workerPool.isEnabled()
+                    ? toFieldMap(workerPool.extract(imagePath, normalized))
+                    : extractWithNewProcess(imagePath, normalized);
+            outcome = "success";
+            return result;
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+            sample.stop(meterRegistry.timer("ocr.extract", "mode", mode, "outcome", outcome));
+        }
+    }
+
+    // POST /scan answers a rejection with 429; scan jobs and batch scans record it as a failed file
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(maxConcurrentWaitMs, TimeUnit.MILLISECONDS)) {
+                meterRegistry.counter("ocr.rejected").increment();
+                throw new OcrBusyException("No OCR slot free within " + maxConcurrentWaitMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OcrBusyException("Interrupted while waiting for an OCR slot", e);
+        }
+    }
+
+    // Legacy path: one python3 process per scan
+    public Map<String, String> extractWithNewProcess(String imagePath, boolean normalized) {
         try {
             // Execute Python script
-            ProcessBuilder processBuilder = new ProcessBuilder(
-                    pythonPath,
-                    scriptPath,
-                    imagePath);
+            ProcessBuilder processBuilder = normalized
+                    ? new ProcessBuilder(pythonPath, scriptPath, "--normalized", imagePath)
+                    : new ProcessBuilder(pythonPath, scriptPath, imagePath);
 
             processBuilder.redirectErrorStream(true);
             Process process = processBuilder.start();
@@ -44,22 +115,26 @@ public class OcrService {
             }
 
             int exitCode = process.waitFor();
+            meterRegistry.counter("ocr.process.exit", "code", String.valueOf(exitCode)).increment();
             if (exitCode != 0) {
                 throw new RuntimeException("OCR process failed with exit code: " + exitCode);
             }
 
             // Parse JSON output
-            JsonNode jsonNode = objectMapper.readTree(output.toString());
-            Map<String, String> result = new HashMap<>();
-
-            jsonNode.fields().forEachRemaining(entry -> {
-                result.put(entry.getKey(), entry.getValue().asText());
-            });
-
-            return result;
+            return toFieldMap(objectMapper.readTree(output.toString()));
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to extract bill details: " + e.getMessage(), e);
         }
     }
+
+    private Map<String, String> toFieldMap(JsonNode jsonNode) {
+        Map<String, String> result = new HashMap<>();
+
+        jsonNode.fields().forEachRemaining(entry -> {
+            result.put(entry.getKey(), entry.getValue().asText());
+        });
+
+        return result;
+    }
 }
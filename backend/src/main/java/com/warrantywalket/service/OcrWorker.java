@@ -0,0 +1,82 @@
+package com.warrantywalket.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+// A long-lived "ocr_service.py --serve" process answering one line-delimited JSON request at a time
+class OcrWorker {
+
+    private final Process process;
+    private final BufferedWriter writer;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+
+    private long nextRequestId = 1;
+
+    OcrWorker(String pythonPath, String scriptPath, ObjectMapper objectMapper) throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder(pythonPath, scriptPath, "--serve");
+
+        // Keep stderr out of the response stream so it cannot corrupt the protocol
+        processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        this.process = processBuilder.start();
+        this.writer = new BufferedWriter(
+                new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        this.reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    JsonNode extract(String imagePath, boolean normalized) throws IOException {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("image_path", imagePath);
+        request.put("normalized", normalized);
+        return call(request);
+    }
+
+    boolean ping() {
+        try {
+            ObjectNode request = objectMapper.createObjectNode();
+            request.put("op", "ping");
+            return call(request).path("ok").asBoolean(false);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    void destroy() {
+        process.destroyForcibly();
+    }
+
+    private JsonNode call(ObjectNode request) throws IOException {
+        long requestId = nextRequestId++;
+        request.put("id", requestId);
+
+        writer.write(objectMapper.writeValueAsString(request));
+        writer.newLine();
+        writer.flush();
+
+        String line = reader.readLine();
+        if (line == null) {
+            throw new IOException("OCR worker exited unexpectedly");
+        }
+
+        JsonNode response = objectMapper.readTree(line);
+        if (response.path("id").asLong(-1) != requestId) {
+            throw new IOException("OCR worker answered out of order");
+        }
+        return response;
+    }
+}
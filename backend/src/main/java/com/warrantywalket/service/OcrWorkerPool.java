@@ -0,0 +1,208 @@
+package com.warrantywalket.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class OcrWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(OcrWorkerPool.class);
+
+    @Value("${ocr.python.path}")
+    private String pythonPath;
+
+    @Value("${ocr.script.path}")
+    private String scriptPath;
+
+    @Value("${ocr.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ocr.pool.size:2}")
+    private int poolSize;
+
+    @Value("${ocr.pool.request-timeout-ms:60000}")
+    private long requestTimeoutMs;
+
+    @Value("${ocr.pool.acquire-timeout-ms:30000}")
+    private long acquireTimeoutMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BlockingQueue<OcrWorker> idleWorkers = new LinkedBlockingQueue<>();
+
+    // Idle plus busy workers
+    private final AtomicInteger workerCount = new AtomicInteger();
+
+    // Kills a worker that overruns its request timeout, which unblocks the waiting reader
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ocr-pool-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean shuttingDown;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        Gauge.builder("ocr.pool.workers", workerCount, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("ocr.pool.idle", idleWorkers, BlockingQueue::size).register(meterRegistry);
+
+        topUp();
+        log.info("OCR worker pool started with {}/{} workers", workerCount.get(), poolSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        watchdog.shutdownNow();
+
+        OcrWorker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.destroy();
+        }
+    }
+
+    public JsonNode extract(String imagePath, boolean normalized) {
+        OcrWorker worker = acquire();
+        boolean healthy = false;
+        ScheduledFuture<?> timeout = watchdog.schedule(worker::destroy, requestTimeoutMs, TimeUnit.MILLISECONDS);
+
+        try {
+            JsonNode response = worker.extract(imagePath, normalized);
+            healthy = true;
+
+            if (response.has("error")) {
+                throw new RuntimeException("OCR failed: " + response.get("error").asText());
+            }
+            return response.path("result");
+
+        } catch (IOException e) {
+            throw new RuntimeException("OCR worker failed: " + e.getMessage(), e);
+        } finally {
+            timeout.cancel(false);
+            release(worker, healthy);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ocr.pool.health-check-interval-ms:30000}",
+            initialDelayString = "${ocr.pool.health-check-interval-ms:30000}")
+    public void healthCheck() {
+        if (!enabled || shuttingDown) {
+            return;
+        }
+
+        // Only check workers that are idle right now; busy ones are checked when released
+        int idle = idleWorkers.size();
+        for (int i = 0; i < idle; i++) {
+            OcrWorker worker = idleWorkers.poll();
+            if (worker == null) {
+                break;
+            }
+
+            ScheduledFuture<?> timeout = watchdog.schedule(worker::destroy, requestTimeoutMs, TimeUnit.MILLISECONDS);
+            boolean healthy = worker.isAlive() && worker.ping();
+            timeout.cancel(false);
+
+            if (healthy) {
+                idleWorkers.offer(worker);
+            } else {
+                log.warn("OCR worker failed health check, restarting");
+                retire(worker);
+            }
+        }
+
+        topUp();
+    }
+
+    private OcrWorker acquire() {
+        try {
+            OcrWorker worker = idleWorkers.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            while (worker != null && !worker.isAlive()) {
+                log.warn("OCR worker found dead, restarting");
+                retire(worker);
+                topUp();
+                worker = idleWorkers.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+
+            if (worker == null) {
+                throw new RuntimeException("No OCR worker available");
+            }
+            return worker;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for an OCR worker", e);
+        }
+    }
+
+    private void release(OcrWorker worker, boolean healthy) {
+        if (healthy && worker.isAlive() && !shuttingDown) {
+            idleWorkers.offer(worker);
+            return;
+        }
+
+        retire(worker);
+        if (!shuttingDown) {
+            topUp();
+        }
+    }
+
+    private void retire(OcrWorker worker) {
+        worker.destroy();
+        workerCount.decrementAndGet();
+        meterRegistry.counter("ocr.pool.worker.restarts").increment();
+    }
+
+    // Replacements go through here too, so the count check and the spawn happen under one lock and
+    // concurrent releases cannot start more than poolSize workers
+    private synchronized void topUp() {
+        while (workerCount.get() < poolSize) {
+            if (!spawn()) {
+                break;
+            }
+        }
+    }
+
+    private boolean spawn() {
+        try {
+            OcrWorker worker = new OcrWorker(pythonPath, scriptPath, objectMapper);
+            workerCount.incrementAndGet();
+            idleWorkers.offer(worker);
+            return true;
+        } catch (IOException e) {
+            // The health check will try again on its next run
+            log.error("Failed to start OCR worker", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.Warranty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Fills priceMinor and priceCurrency on warranties saved before prices were parsed at scan time. Each
+// batch is one unordered bulk write, and every document gets priceMinor set (to null when assetPrice is
+// not an amount), so an interrupted run just continues with what is left. One batch per run, so the
+// shared scheduler thread is free for other jobs in between.
+@Service
+public class PriceBackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceBackfillJob.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WarrantyService warrantyService;
+
+    @Autowired
+    private WalletVersionService walletVersionService;
+
+    @Value("${price.backfill.batch-size:500}")
+    private int batchSize;
+
+    // Set once a run finds less than a full batch, so later runs skip the unindexed query
+    private volatile boolean done;
+
+    @Scheduled(fixedDelayString = "${price.backfill.interval-ms:10000}",
+            initialDelayString = "${price.backfill.initial-delay-ms:30000}")
+    public void backfill() {
+        if (done) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Query query = Query.query(Criteria.where("priceMinor").exists(false)).limit(batchSize);
+        query.fields().include("userId").include("assetPrice");
+
+        List<Warranty> pending = mongoTemplate.find(query, Warranty.class);
+        if (pending.isEmpty()) {
+            done = true;
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Warranty.class);
+        for (Warranty warranty : pending) {
+            warrantyService.applyPrice(warranty);
+            bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(warranty.getId())),
+                    new Update()
+                            .set("priceMinor", warranty.getPriceMinor())
+                            .set("priceCurrency", warranty.getPriceCurrency()));
+        }
+        bulk.execute();
+
+        // priceMinor is part of every list response
+        pending.stream()
+                .map(Warranty::getUserId)
+                .distinct()
+                .forEach(walletVersionService::bump);
+
+        // Only after the batch is written, so a failed write is retried on the next run
+        if (pending.size() < batchSize) {
+            done = true;
+        }
+        log.info("Price backfill updated {} warranties in {} ms", pending.size(), System.currentTimeMillis() - start);
+    }
+}
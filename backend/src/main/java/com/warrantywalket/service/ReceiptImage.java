@@ -0,0 +1,41 @@
+package com.warrantywalket.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Data
+@AllArgsConstructor
+public class ReceiptImage {
+
+    private Path path;
+
+    private long size;
+
+    // SHA-256 of the file contents, used as the strong ETag
+    private String contentHash;
+
+    // Copies [position, position + count) with FileChannel.transferTo, so no heap buffer is
+    // filled per request; used when the connector cannot sendfile() the range itself
+    public void transferTo(long position, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+}
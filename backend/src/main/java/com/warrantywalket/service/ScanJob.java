@@ -0,0 +1,67 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.dto.ScanJobResponse;
+import com.warrantywalket.dto.WarrantyResponse;
+
+import java.util.UUID;
+
+// In-memory state of one asynchronous scan; fields are written by a worker and read by status polls
+public class ScanJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private final String id = UUID.randomUUID().toString();
+    private final String userId;
+
+    private volatile String status = QUEUED;
+    private volatile WarrantyResponse warranty;
+    private volatile String error;
+    private volatile long finishedAt;
+
+    public ScanJob(String userId) {
+        this.userId = userId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return DONE.equals(status) || FAILED.equals(status);
+    }
+
+    void markRunning() {
+        status = RUNNING;
+    }
+
+    void markDone(WarrantyResponse warranty) {
+        this.warranty = warranty;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = DONE;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = FAILED;
+    }
+
+    public ScanJobResponse toResponse() {
+        return new ScanJobResponse(id, status, warranty, error);
+    }
+}
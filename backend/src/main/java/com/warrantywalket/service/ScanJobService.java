@@ -0,0 +1,99 @@
+package com.warrantywalket.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ScanJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScanJobService.class);
+
+    @Autowired
+    private WarrantyService warrantyService;
+
+    @Value("${scan.jobs.workers:2}")
+    private int workers;
+
+    @Value("${scan.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${scan.jobs.retention-ms:3600000}")
+    private long retentionMs;
+
+    private final Map<String, ScanJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "scan-job-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Stores the upload on the request thread (the multipart temp file dies with the request) and queues the OCR.
+    // Throws RejectedExecutionException when the queue is full.
+    public ScanJob submit(MultipartFile file, String userId) throws IOException {
+        StoredUpload upload = warrantyService.storeUpload(file);
+        ScanJob job = new ScanJob(userId);
+
+        try {
+            jobs.put(job.getId(), job);
+            executor.execute(() -> run(job, upload));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(upload.getPath());
+            throw e;
+        }
+
+        return job;
+    }
+
+    public Optional<ScanJob> getJob(String jobId, String userId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.getUserId().equals(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${scan.jobs.purge-interval-ms:60000}")
+    public void purgeFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() < cutoff);
+    }
+
+    private void run(ScanJob job, StoredUpload upload) {
+        job.markRunning();
+        try {
+            job.markDone(warrantyService.processStoredBill(upload, job.getUserId()));
+        } catch (Exception e) {
+            log.warn("Scan job {} failed", job.getId(), e);
+            job.markFailed("Failed to scan bill: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.warrantywalket.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.file.Path;
+
+@Data
+@AllArgsConstructor
+public class StoredUpload {
+
+    private Path path;
+
+    // SHA-256 of the file contents, computed while it was written
+    private String contentHash;
+}
@@ -0,0 +1,14 @@
+package com.warrantywalket.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class Thumbnail {
+
+    private byte[] data;
+
+    // SHA-256 of the original image, null for warranties that have never had one computed
+    private String contentHash;
+}
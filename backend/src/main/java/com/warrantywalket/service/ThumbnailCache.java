@@ -0,0 +1,98 @@
+package com.warrantywalket.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Thumbnail bytes keyed by file path, bounded by total size rather than entry count; least recently
+// served thumbnails are evicted first
+@Service
+public class ThumbnailCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, byte[]> lru = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Guarded by lru
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ThumbnailCache(@Value("${thumbnails.cache.max-bytes:33554432}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("cache.size", this, ThumbnailCache::size).tag("cache", "thumbnails").register(meterRegistry);
+        Gauge.builder("cache.bytes", this, ThumbnailCache::bytes).tag("cache", "thumbnails")
+                .baseUnit("bytes").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", "thumbnails", "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", "thumbnails", "result", "miss").register(meterRegistry);
+    }
+
+    public byte[] get(String key) {
+        byte[] data;
+        synchronized (lru) {
+            data = lru.get(key);
+        }
+        (data == null ? misses : hits).incrementAndGet();
+        return data;
+    }
+
+    public void put(String key, byte[] data) {
+        if (data.length > maxBytes) {
+            return;
+        }
+
+        synchronized (lru) {
+            byte[] previous = lru.put(key, data);
+            if (previous != null) {
+                bytes -= previous.length;
+            }
+            bytes += data.length;
+
+            Iterator<Map.Entry<String, byte[]>> eldest = lru.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    public void evict(String key) {
+        synchronized (lru) {
+            byte[] removed = lru.remove(key);
+            if (removed != null) {
+                bytes -= removed.length;
+            }
+        }
+    }
+
+    private int size() {
+        synchronized (lru) {
+            return lru.size();
+        }
+    }
+
+    private long bytes() {
+        synchronized (lru) {
+            return bytes;
+        }
+    }
+}
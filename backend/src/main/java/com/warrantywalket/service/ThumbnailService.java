@@ -0,0 +1,276 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.Warranty;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// JPEG previews of each receipt in a few fixed sizes, written next to the original as
+// <name>-thumb-<size>.jpg. They are generated in the background after a scan; warranties that never got
+// them (older records, or a full queue) are picked up by the backfill.
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    @Value("${thumbnails.sizes:160,320,640}")
+    private int[] sizes;
+
+    @Value("${thumbnails.default-size:320}")
+    private int defaultSize;
+
+    @Value("${thumbnails.workers:1}")
+    private int workers;
+
+    @Value("${thumbnails.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${thumbnails.backfill.batch-size:200}")
+    private int backfillBatchSize;
+
+    private ThreadPoolExecutor executor;
+
+    // Set once the backfill finds nothing left, so later runs skip the unindexed query. Cleared whenever a
+    // new warranty is left for the backfill.
+    private volatile boolean backfillDone;
+
+    @PostConstruct
+    public void start() {
+        // Largest first, so each size is scaled down from the previous one
+        sizes = Arrays.stream(sizes).boxed()
+                .sorted((a, b) -> b - a)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "thumbnail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public boolean isSupportedSize(int size) {
+        return Arrays.stream(sizes).anyMatch(supported -> supported == size);
+    }
+
+    public int[] getSizes() {
+        return sizes.clone();
+    }
+
+    public void generateAsync(Warranty warranty) {
+        if (warranty.getImagePath() == null) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> generate(warranty));
+        } catch (RejectedExecutionException e) {
+            log.debug("Thumbnail queue full, leaving warranty {} for the backfill", warranty.getId());
+            backfillDone = false;
+        }
+    }
+
+    // Writes every size and records which ones exist. A failure is recorded as an empty list so the
+    // backfill does not retry an unreadable image forever.
+    public void generate(Warranty warranty) {
+        List<Integer> generated = new ArrayList<>();
+        Path image = Paths.get(warranty.getImagePath());
+
+        try {
+            // A repeat upload shares the original image, and with it the thumbnails
+            if (Arrays.stream(sizes).allMatch(size -> Files.exists(thumbnailPath(image, size)))) {
+                Arrays.stream(sizes).forEach(generated::add);
+            } else {
+                generated.addAll(writeThumbnails(image));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate thumbnails for warranty {}", warranty.getId(), e);
+        }
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(warranty.getId())),
+                new Update().set("thumbnailSizes", generated),
+                Warranty.class);
+        warranty.setThumbnailSizes(generated);
+    }
+
+    private List<Integer> writeThumbnails(Path image) throws IOException {
+        List<Integer> generated = new ArrayList<>();
+        BufferedImage current = ImageFiles.read(image, sizes[0]);
+        if (current != null) {
+            for (int size : sizes) {
+                current = scale(current, size);
+                write(current, thumbnailPath(image, size));
+                generated.add(size);
+            }
+        }
+        return generated;
+    }
+
+    // Generates the thumbnails on the spot when the background run has not got to this warranty yet.
+    // Once a generation attempt is recorded, sizes it did not produce (all of them for an unreadable
+    // image) are not retried on every GET.
+    public Optional<Thumbnail> getThumbnail(Warranty warranty, int size) {
+        if (warranty.getThumbnailSizes() != null && !warranty.getThumbnailSizes().contains(size)) {
+            return Optional.empty();
+        }
+
+        Path path = thumbnailPath(Paths.get(warranty.getImagePath()), size);
+        String key = path.toString();
+
+        byte[] data = thumbnailCache.get(key);
+        if (data == null) {
+            if (!Files.exists(path)) {
+                generate(warranty);
+            }
+
+            try {
+                data = Files.readAllBytes(path);
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+            thumbnailCache.put(key, data);
+        }
+
+        return Optional.of(new Thumbnail(data, warranty.getContentHash()));
+    }
+
+    public void deleteThumbnails(String imagePath) {
+        Path image = Paths.get(imagePath);
+        for (int size : sizes) {
+            Path path = thumbnailPath(image, size);
+            thumbnailCache.evict(path.toString());
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Orphaned thumbnails are harmless
+            }
+        }
+    }
+
+    // Warranties with an image but no thumbnailSizes, a batch per run so other scheduled tasks keep running
+    @Scheduled(fixedDelayString = "${thumbnails.backfill.interval-ms:300000}",
+            initialDelayString = "${thumbnails.backfill.initial-delay-ms:60000}")
+    public void backfill() {
+        if (backfillDone) {
+            return;
+        }
+        // Set before the query, so a warranty left for the backfill while this run is going clears it again
+        backfillDone = true;
+
+        Query query = Query.query(Criteria.where("imagePath").ne(null).and("thumbnailSizes").exists(false))
+                .limit(backfillBatchSize);
+        query.fields().include("imagePath").include("contentHash");
+
+        List<Warranty> pending;
+        try {
+            pending = mongoTemplate.find(query, Warranty.class);
+        } catch (RuntimeException e) {
+            backfillDone = false;
+            throw e;
+        }
+        if (pending.size() == backfillBatchSize) {
+            backfillDone = false;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        pending.forEach(this::generate);
+        log.info("Thumbnail backfill generated {} warranties in {} ms", pending.size(), System.currentTimeMillis() - start);
+    }
+
+    private Path thumbnailPath(Path image, int size) {
+        String name = image.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return image.resolveSibling(base + "-thumb-" + size + ".jpg");
+    }
+
+    // Never upscales; JPEG has no alpha, so transparent areas become white
+    private BufferedImage scale(BufferedImage source, int size) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) size / Math.max(width, height));
+
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Written to a temp file and moved into place, so a reader never sees a half-written thumbnail
+    private void write(BufferedImage thumbnail, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "thumb-", ".tmp");
+        try {
+            if (!ImageIO.write(thumbnail, "jpg", temp.toFile())) {
+                throw new IOException("No JPEG writer available");
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.WalletVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+// Per-user counter behind the list ETags. Writers bump it after changing a user's warranties, so a
+// version read before a list query can only be older than the data returned, never newer.
+@Service
+public class WalletVersionService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // 0 for a user whose wallet has not changed since versions were introduced
+    public long getVersion(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("version");
+
+        WalletVersion walletVersion = mongoTemplate.findOne(query, WalletVersion.class);
+        return walletVersion == null ? 0 : walletVersion.getVersion();
+    }
+
+    // The list ETag's wallet part. Versions start at 0 for everyone and bumpAll moves them together, so
+    // the user is part of it too; otherwise one user's cached list could revalidate for another.
+    public String getListTag(String userId) {
+        return userTag(userId) + "-" + getVersion(userId);
+    }
+
+    public void bump(String userId) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), versionUpdate(), WalletVersion.class);
+    }
+
+    // For the daily status rollover. Users with no version document yet still get a new ETag, because it
+    // also carries the date.
+    public void bumpAll() {
+        mongoTemplate.updateMulti(new Query(), versionUpdate(), WalletVersion.class);
+    }
+
+    private String userTag(String userId) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(userId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Update versionUpdate() {
+        return new Update()
+                .inc("version", 1)
+                .set("updatedAt", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,70 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.Warranty;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor: base64url of "<expiryDate or empty>|<id>" for the last warranty on a page, or of
+// "#<priceMinor>|<id>" when the list is ordered by price
+public class WarrantyCursor {
+
+    private static final char PRICE_PREFIX = '#';
+
+    private final LocalDate expiryDate;
+    private final Long priceMinor;
+    private final String id;
+
+    private WarrantyCursor(LocalDate expiryDate, Long priceMinor, String id) {
+        this.expiryDate = expiryDate;
+        this.priceMinor = priceMinor;
+        this.id = id;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    // Null for cursors from an expiry-ordered list
+    public Long getPriceMinor() {
+        return priceMinor;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public static String encode(Warranty last) {
+        String expiry = last.getExpiryDate() == null ? "" : last.getExpiryDate().toString();
+        return encodeRaw(expiry + "|" + last.getId());
+    }
+
+    public static String encodeByPrice(Warranty last) {
+        return encodeRaw(PRICE_PREFIX + String.valueOf(last.getPriceMinor()) + "|" + last.getId());
+    }
+
+    public static WarrantyCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+
+            String key = raw.substring(0, separator);
+            String id = raw.substring(separator + 1);
+            if (!key.isEmpty() && key.charAt(0) == PRICE_PREFIX) {
+                return new WarrantyCursor(null, Long.parseLong(key.substring(1)), id);
+            }
+            return new WarrantyCursor(key.isEmpty() ? null : LocalDate.parse(key), null, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,235 @@
+package com.warrantywalket.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Period;
+import java.time.Year;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Parses the OCR'd invoice date and warranty period without regexes or exceptions on the hot path.
+// Dates are classified by shape (separator and digit-group lengths) and built directly from the digits.
+@Component
+public class WarrantyFieldParser {
+
+    // "Lifetime" warranties are stored as a far-future expiry that still fits a Mongo date
+    public static final Period LIFETIME = Period.ofYears(99);
+
+    private static final Period DEFAULT_PERIOD = Period.ofYears(1);
+
+    // Upper-cased markers OCR leaves around amounts; longer ones first so "RS." is removed before "RS"
+    private static final Map<String, String> CURRENCY_MARKERS = new LinkedHashMap<>();
+
+    static {
+        CURRENCY_MARKERS.put("INR", "INR");
+        CURRENCY_MARKERS.put("RS.", "INR");
+        CURRENCY_MARKERS.put("RS", "INR");
+        CURRENCY_MARKERS.put("\u20B9", "INR");
+        CURRENCY_MARKERS.put("USD", "USD");
+        CURRENCY_MARKERS.put("$", "USD");
+        CURRENCY_MARKERS.put("EUR", "EUR");
+        CURRENCY_MARKERS.put("\u20AC", "EUR");
+        CURRENCY_MARKERS.put("GBP", "GBP");
+        CURRENCY_MARKERS.put("\u00A3", "GBP");
+    }
+
+    // Initialised for parsers created outside Spring, as in backend-benchmarks
+    @Value("${price.default-currency:INR}")
+    private String defaultCurrency = "INR";
+
+    // Accepts d/M/yyyy, yyyy/M/d and d/M/yy with '/', '-' or '.' as separator (the same one twice).
+    // Returns null when the text is not a valid date of one of those shapes.
+    public LocalDate parseDate(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        int[] values = new int[3];
+        int[] lengths = new int[3];
+        int group = 0;
+        char separator = 0;
+
+        int end = text.length();
+        int i = 0;
+        while (i < end && text.charAt(i) == ' ') {
+            i++;
+        }
+        while (end > i && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (lengths[group] == 4) {
+                    return null;
+                }
+                values[group] = values[group] * 10 + (c - '0');
+                lengths[group]++;
+            } else if (c == '/' || c == '-' || c == '.') {
+                if (lengths[group] == 0 || group == 2 || (separator != 0 && c != separator)) {
+                    return null;
+                }
+                separator = c;
+                group++;
+            } else {
+                return null;
+            }
+        }
+
+        if (group != 2 || lengths[2] == 0) {
+            return null;
+        }
+
+        if (lengths[0] == 4 && lengths[1] <= 2 && lengths[2] <= 2) {
+            return dateOf(values[0], values[1], values[2]);
+        }
+        if (lengths[0] <= 2 && lengths[1] <= 2) {
+            if (lengths[2] == 4) {
+                return dateOf(values[2], values[1], values[0]);
+            }
+            if (lengths[2] == 2) {
+                return dateOf(2000 + values[2], values[1], values[0]);
+            }
+        }
+        return null;
+    }
+
+    // Understands "1 year", "6 months", "12 mo", "2yrs", "90 days", "3 wks" and "lifetime".
+    // Returns null when no amount and unit can be read.
+    public Period parsePeriod(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String lower = text.toLowerCase();
+        if (lower.contains("lifetime")) {
+            return LIFETIME;
+        }
+
+        int i = 0;
+        int length = lower.length();
+        while (i < length && !Character.isDigit(lower.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return null;
+        }
+
+        int amount = 0;
+        while (i < length && Character.isDigit(lower.charAt(i))) {
+            if (amount > 10000) {
+                return null;
+            }
+            amount = amount * 10 + (lower.charAt(i) - '0');
+            i++;
+        }
+        while (i < length && lower.charAt(i) == ' ') {
+            i++;
+        }
+
+        int unitStart = i;
+        while (i < length && Character.isLetter(lower.charAt(i))) {
+            i++;
+        }
+        String unit = lower.substring(unitStart, i);
+
+        switch (unit) {
+            case "y": case "yr": case "yrs": case "year": case "years":
+                return Period.ofYears(amount);
+            case "m": case "mo": case "mos": case "mon": case "mth": case "mths": case "month": case "months":
+                return Period.ofMonths(amount);
+            case "w": case "wk": case "wks": case "week": case "weeks":
+                return Period.ofWeeks(amount);
+            case "d": case "day": case "days":
+                return Period.ofDays(amount);
+            default:
+                return null;
+        }
+    }
+
+    // Reads OCR'd amounts such as "Rs. 45,999.00", "$1,299" or "45999/-" as a whole number of the currency's
+    // minor units (paise, cents). Commas are ignored; returns null for anything else or more decimals
+    // than the currency has.
+    public Long parseMinorUnits(String text, String currency) {
+        if (text == null || currency == null) {
+            return null;
+        }
+
+        String amount = text.toUpperCase(Locale.ROOT);
+        for (String marker : CURRENCY_MARKERS.keySet()) {
+            amount = amount.replace(marker, "");
+        }
+        amount = amount.trim();
+        if (amount.endsWith("/-")) {
+            amount = amount.substring(0, amount.length() - 2).trim();
+        }
+
+        StringBuilder digits = new StringBuilder(amount.length());
+        boolean point = false;
+        boolean anyDigit = false;
+        for (int i = 0; i < amount.length(); i++) {
+            char c = amount.charAt(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                digits.append(c);
+            } else if (c == '.' && !point) {
+                point = true;
+                digits.append(c);
+            } else if (c != ',') {
+                return null;
+            }
+        }
+        if (!anyDigit) {
+            return null;
+        }
+
+        int fractionDigits = Math.max(0, Currency.getInstance(currency).getDefaultFractionDigits());
+        try {
+            return new BigDecimal(digits.toString()).movePointRight(fractionDigits).longValueExact();
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    public double toMajorUnits(long minorUnits, String currency) {
+        int fractionDigits = Math.max(0, Currency.getInstance(currency).getDefaultFractionDigits());
+        return BigDecimal.valueOf(minorUnits, fractionDigits).doubleValue();
+    }
+
+    // ISO code of the currency marked in the text, or price.default-currency when it has none
+    public String parseCurrency(String text) {
+        if (text != null) {
+            String upper = text.toUpperCase(Locale.ROOT);
+            for (Map.Entry<String, String> marker : CURRENCY_MARKERS.entrySet()) {
+                if (upper.contains(marker.getKey())) {
+                    return marker.getValue();
+                }
+            }
+        }
+        return defaultCurrency;
+    }
+
+    public LocalDate calculateExpiryDate(LocalDate invoiceDate, String warrantyPeriod) {
+        Period period = parsePeriod(warrantyPeriod);
+
+        // Default: 1 year warranty
+        return invoiceDate.plus(period == null ? DEFAULT_PERIOD : period);
+    }
+
+    private LocalDate dateOf(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+}
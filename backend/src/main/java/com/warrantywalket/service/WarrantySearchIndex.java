@@ -0,0 +1,230 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.dto.WarrantySuggestion;
+import com.warrantywalket.model.Warranty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// In-memory token index per user for search-as-you-type over the searchable warranty fields.
+// A user's index is loaded from Mongo on first use and then kept current by add/remove on scan and
+// delete; it is rebuilt after ttl-ms so writes made by other instances show up eventually.
+@Service
+public class WarrantySearchIndex {
+
+    private static final String[] FIELDS = {
+            "productName", "merchantName", "modelNumber", "serialNumber", "invoiceNumber"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${search.index.ttl-ms:600000}")
+    private long ttlMs;
+
+    private final Map<String, UserIndex> users;
+
+    public WarrantySearchIndex(@Value("${search.index.max-users:1000}") int maxUsers) {
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserIndex> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    // Every query token must match; the last one may be a prefix ("sams" finds Samsung)
+    public List<WarrantySuggestion> autocomplete(String userId, String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        UserIndex index = indexFor(userId);
+        synchronized (index) {
+            Set<String> matches = null;
+            for (int i = 0; i < tokens.size() && (matches == null || !matches.isEmpty()); i++) {
+                Set<String> ids = i == tokens.size() - 1
+                        ? index.idsWithPrefix(tokens.get(i))
+                        : index.ids(tokens.get(i));
+                if (matches == null) {
+                    matches = new HashSet<>(ids);
+                } else {
+                    matches.retainAll(ids);
+                }
+            }
+
+            return matches.stream()
+                    .map(index.entries::get)
+                    .sorted(Comparator.comparing(WarrantySuggestion::getProductName,
+                            Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    // Only users whose index is loaded are updated; anyone else picks the change up on first load
+    public void add(Warranty warranty) {
+        UserIndex index;
+        synchronized (users) {
+            index = users.get(warranty.getUserId());
+        }
+        if (index != null) {
+            synchronized (index) {
+                index.add(warranty);
+            }
+        }
+    }
+
+    public void remove(String userId, String warrantyId) {
+        UserIndex index;
+        synchronized (users) {
+            index = users.get(userId);
+        }
+        if (index != null) {
+            synchronized (index) {
+                index.remove(warrantyId);
+            }
+        }
+    }
+
+    // Package-private so backend-benchmarks can index fixtures without Mongo
+    void load(String userId, Collection<Warranty> warranties) {
+        UserIndex index = new UserIndex(System.currentTimeMillis());
+        warranties.forEach(index::add);
+        synchronized (users) {
+            users.put(userId, index);
+        }
+    }
+
+    private UserIndex indexFor(String userId) {
+        UserIndex index;
+        synchronized (users) {
+            index = users.get(userId);
+        }
+        if (index != null && System.currentTimeMillis() - index.loadedAt < ttlMs) {
+            return index;
+        }
+
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        query.fields().include("userId").include(FIELDS);
+        load(userId, mongoTemplate.find(query, Warranty.class));
+
+        synchronized (users) {
+            return users.get(userId);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static final class UserIndex {
+
+        private final long loadedAt;
+
+        private final Map<String, WarrantySuggestion> entries = new HashMap<>();
+
+        private final TreeMap<String, Set<String>> tokens = new TreeMap<>();
+
+        private UserIndex(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private void add(Warranty warranty) {
+            remove(warranty.getId());
+
+            WarrantySuggestion entry = new WarrantySuggestion(
+                    warranty.getId(),
+                    warranty.getProductName(),
+                    warranty.getMerchantName(),
+                    warranty.getModelNumber(),
+                    warranty.getSerialNumber(),
+                    warranty.getInvoiceNumber());
+            entries.put(entry.getId(), entry);
+
+            for (String token : tokensOf(entry)) {
+                tokens.computeIfAbsent(token, key -> new HashSet<>()).add(entry.getId());
+            }
+        }
+
+        private void remove(String id) {
+            WarrantySuggestion entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+
+            for (String token : tokensOf(entry)) {
+                Set<String> ids = tokens.get(token);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        tokens.remove(token);
+                    }
+                }
+            }
+        }
+
+        private Set<String> ids(String token) {
+            return tokens.getOrDefault(token, Set.of());
+        }
+
+        private Set<String> idsWithPrefix(String prefix) {
+            Set<String> ids = new HashSet<>();
+            for (Set<String> matching : tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                ids.addAll(matching);
+            }
+            return ids;
+        }
+
+        // Words of every field, plus identifiers with their separators removed so "SN-12" and "sn12" both match
+        private static Set<String> tokensOf(WarrantySuggestion entry) {
+            Set<String> result = new HashSet<>();
+            addTokens(result, entry.getProductName(), false);
+            addTokens(result, entry.getMerchantName(), false);
+            addTokens(result, entry.getModelNumber(), true);
+            addTokens(result, entry.getSerialNumber(), true);
+            addTokens(result, entry.getInvoiceNumber(), true);
+            return result;
+        }
+
+        private static void addTokens(Set<String> result, String value, boolean identifier) {
+            List<String> words = tokenize(value);
+            result.addAll(words);
+            if (identifier && words.size() > 1) {
+                result.add(String.join("", words));
+            }
+        }
+    }
+}
@@ -1,35 +1,80 @@
 package com.warrantywalket.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warrantywalket.dto.WarrantyPage;
 import com.warrantywalket.dto.WarrantyResponse;
+import com.warrantywalket.dto.WarrantySuggestion;
+import com.warrantywalket.dto.WarrantySummaryResponse;
+import com.warrantywalket.model.OcrResult;
 import com.warrantywalket.model.Warranty;
 import com.warrantywalket.repository.WarrantyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class WarrantyService {
 
+    public static final int EXPIRING_SOON_DAYS = 7;
+
     @Autowired
     private WarrantyRepository warrantyRepository;
 
     @Autowired
     private OcrService ocrService;
 
+    @Autowired
+    private OcrResultCache ocrResultCache;
+
+    @Autowired
+    private WarrantyFieldParser warrantyFieldParser;
+
+    @Autowired
+    private ImageNormalizer imageNormalizer;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private WarrantySearchIndex searchIndex;
+
+    @Autowired
+    private WarrantySummaryService summaryService;
+
+    @Autowired
+    private WalletVersionService walletVersionService;
+
+    @Autowired
+    private ExpiryAlertEngine expiryAlertEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private String getUploadDir() {
         // Use absolute path in user's warranty-wallet directory
         String projectDir = System.getProperty("user.dir");
@@ -39,6 +84,13 @@ public class WarrantyService {
     }
 
     public WarrantyResponse scanAndSaveBill(MultipartFile file, String userId) throws IOException {
+        StoredUpload upload = storeUpload(file);
+        return processStoredBill(upload, userId);
+    }
+
+    public StoredUpload storeUpload(MultipartFile file) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
         // Save uploaded file
         String originalFilename = file.getOriginalFilename();
         String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
@@ -50,10 +102,40 @@ public class WarrantyService {
         }
 
         Path filePath = uploadPath.resolve(uniqueFilename);
-        file.transferTo(filePath.toFile());
 
-        // Extract bill details using OCR
-        Map<String, String> extractedData = ocrService.extractBillDetails(filePath.toString());
+        // Hash the content while writing it so repeat uploads can be recognised without a second pass
+        MessageDigest digest = newSha256Digest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, filePath);
+        }
+
+        sample.stop(stageTimer("file_write"));
+        return new StoredUpload(filePath, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    public WarrantyResponse processStoredBill(StoredUpload upload, String userId) {
+        Warranty warranty = buildWarranty(upload, userId);
+
+        // Save to database
+        Timer.Sample sample = Timer.start(meterRegistry);
+        warranty = warrantyRepository.save(warranty);
+        sample.stop(stageTimer("mongo_save"));
+
+        thumbnailService.generateAsync(warranty);
+        searchIndex.add(warranty);
+        summaryService.onWarrantyAdded(warranty);
+        walletVersionService.bump(userId);
+        expiryAlertEngine.onWarrantyAdded(warranty);
+        return mapToResponse(warranty);
+    }
+
+    // Runs OCR and fills in a new, unsaved warranty
+    public Warranty buildWarranty(StoredUpload upload, String userId) {
+        // Extract bill details using OCR, unless this exact image has been scanned before
+        Timer.Sample ocrSample = Timer.start(meterRegistry);
+        Map<String, String> extractedData = extractBillDetails(upload);
+        ocrSample.stop(stageTimer("ocr"));
+        Path filePath = upload.getPath();
 
         // Create warranty entity
         Warranty warranty = new Warranty(userId);
@@ -61,49 +143,253 @@ public class WarrantyService {
         warranty.setSerialNumber(extractedData.get("serial_number"));
         warranty.setModelNumber(extractedData.get("model_number"));
         warranty.setAssetPrice(extractedData.get("asset_price"));
+        applyPrice(warranty);
         warranty.setWarrantyPeriod(extractedData.get("warranty_period"));
         warranty.setPaymentMethod(extractedData.get("payment_method"));
         warranty.setMerchantName(extractedData.get("merchant_name"));
         warranty.setProductName(extractedData.get("product_name"));
         warranty.setImagePath(filePath.toString());
+        warranty.setContentHash(upload.getContentHash());
 
         // Parse and set invoice date
+        Timer.Sample parseSample = Timer.start(meterRegistry);
         String invoiceDateStr = extractedData.get("invoice_date");
         if (invoiceDateStr != null && !invoiceDateStr.isEmpty()) {
-            warranty.setInvoiceDate(parseDate(invoiceDateStr));
+            LocalDate invoiceDate = warrantyFieldParser.parseDate(invoiceDateStr);
+
+            // If the date cannot be read, fall back to today's date
+            warranty.setInvoiceDate(invoiceDate != null ? invoiceDate : LocalDate.now());
         }
 
         // Calculate expiry date and status
         calculateWarrantyExpiry(warranty);
+        parseSample.stop(stageTimer("date_parse"));
 
-        // Save to database
-        warranty = warrantyRepository.save(warranty);
+        return warranty;
+    }
 
-        return mapToResponse(warranty);
+    public List<WarrantyResponse> saveScannedWarranties(List<Warranty> warranties) {
+        // New documents only, so this goes out as a single bulk insert
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Warranty> saved = warrantyRepository.saveAll(warranties);
+        sample.stop(stageTimer("mongo_save"));
+
+        saved.forEach(thumbnailService::generateAsync);
+        saved.forEach(searchIndex::add);
+        saved.forEach(summaryService::onWarrantyAdded);
+        saved.forEach(expiryAlertEngine::onWarrantyAdded);
+        saved.stream()
+                .map(Warranty::getUserId)
+                .distinct()
+                .forEach(walletVersionService::bump);
+        return saved.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, String> extractBillDetails(StoredUpload upload) {
+        Optional<OcrResult> cached = ocrResultCache.get(upload.getContentHash());
+
+        if (cached.isPresent()) {
+            OcrResult result = cached.get();
+            Path cachedImage = Paths.get(result.getImagePath());
+
+            if (!cachedImage.equals(upload.getPath()) && Files.exists(cachedImage)) {
+                // Reuse the image already on disk and drop the duplicate we just wrote
+                try {
+                    Files.deleteIfExists(upload.getPath());
+                    upload.setPath(cachedImage);
+                } catch (IOException e) {
+                    // Keep the new copy if the duplicate cannot be removed
+                }
+            } else {
+                // The original image is gone, so point the cache at this copy
+                ocrResultCache.put(upload.getContentHash(), result.getFields(), upload.getPath().toString());
+            }
+            return result.getFields();
+        }
+
+        Map<String, String> extractedData = runOcr(upload.getPath());
+        ocrResultCache.put(upload.getContentHash(), extractedData, upload.getPath().toString());
+        return extractedData;
+    }
+
+    // OCR runs on a normalized temp copy when possible; the stored image stays the original upload.
+    // Package-private so backend-benchmarks can compare it against OCR on the raw image.
+    Map<String, String> runOcr(Path image) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Path normalized = imageNormalizer.normalize(image);
+        sample.stop(stageTimer("normalize"));
+
+        if (normalized == null) {
+            return ocrService.extractBillDetails(image.toString());
+        }
+
+        try {
+            return ocrService.extractBillDetails(normalized.toString(), true);
+        } finally {
+            try {
+                Files.deleteIfExists(normalized);
+            } catch (IOException e) {
+                // Temp files are cleaned up by the OS eventually
+            }
+        }
     }
 
     public List<WarrantyResponse> getUserWarranties(String userId) {
         List<Warranty> warranties = warrantyRepository.findByUserIdOrderByExpiryDateAsc(userId);
 
-        // Update status for all warranties
-        warranties.forEach(this::calculateWarrantyExpiry);
-        warrantyRepository.saveAll(warranties);
-
-        return warranties.stream()
-                .map(this::mapToResponse)
+        // Status is derived from the stored expiry date, so only documents missing one are written
+        List<Warranty> backfilled = warranties.stream()
+                .filter(this::backfillExpiryDate)
                 .collect(Collectors.toList());
+        if (!backfilled.isEmpty()) {
+            warrantyRepository.setMissingExpiry(backfilled);
+            // The active / expiring-soon / expired lists now include these, so their ETags must change
+            walletVersionService.bump(userId);
+        }
+
+        return mapAll(warranties, LocalDate.now());
+    }
+
+    // Price-filtered or price-ordered list, without paging
+    public List<WarrantyResponse> getUserWarranties(String userId, Long minPrice, Long maxPrice, WarrantySort sort) {
+        return mapAll(findPage(userId, null, minPrice, maxPrice, sort, 0), LocalDate.now());
+    }
+
+    public WarrantyPage getUserWarrantiesPage(String userId, int limit, String cursor) {
+        return getUserWarrantiesPage(userId, limit, cursor, null, null, WarrantySort.EXPIRY);
+    }
+
+    public WarrantyPage getUserWarrantiesPage(String userId, int limit, String cursor,
+                                              Long minPrice, Long maxPrice, WarrantySort sort) {
+        WarrantyCursor after = cursor == null ? null : WarrantyCursor.decode(cursor);
+        if (after != null && sort.isByPrice() != (after.getPriceMinor() != null)) {
+            throw new IllegalArgumentException("Cursor is from a list in another order");
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Warranty> warranties = findPage(userId, after, minPrice, maxPrice, sort, limit + 1);
+
+        String nextCursor = null;
+        if (warranties.size() > limit) {
+            warranties = warranties.subList(0, limit);
+            Warranty last = warranties.get(limit - 1);
+            nextCursor = sort.isByPrice() ? WarrantyCursor.encodeByPrice(last) : WarrantyCursor.encode(last);
+        }
+
+        return new WarrantyPage(mapAll(warranties, LocalDate.now()), nextCursor);
+    }
+
+    // Price filters are amounts in price.default-currency, such as "1000" or "999.50"; the stored minor
+    // units are compared as they are, so a wallet is assumed to hold one currency
+    public Long parsePriceFilter(String amount) {
+        if (amount == null) {
+            return null;
+        }
+        Long minorUnits = warrantyFieldParser.parseMinorUnits(amount, warrantyFieldParser.parseCurrency(null));
+        if (minorUnits == null) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        return minorUnits;
+    }
+
+    private List<Warranty> findPage(String userId, WarrantyCursor after, Long minPrice, Long maxPrice,
+                                    WarrantySort sort, int limit) {
+        if (sort.isByPrice()) {
+            return warrantyRepository.findPageByPriceAfter(
+                    userId,
+                    sort == WarrantySort.PRICE_DESC,
+                    after == null ? null : after.getPriceMinor(),
+                    after == null ? null : after.getId(),
+                    minPrice, maxPrice, limit);
+        }
+        return warrantyRepository.findPageAfter(
+                userId,
+                after == null ? null : after.getExpiryDate(),
+                after == null ? null : after.getId(),
+                minPrice, maxPrice, limit);
     }
 
+    // Writes one JSON warranty per line straight from the Mongo cursor, never holding the whole wallet
+    public void streamUserWarranties(String userId, OutputStream out) throws IOException {
+        LocalDate today = LocalDate.now();
+        byte[] newline = {'\n'};
+
+        try (Stream<Warranty> warranties = warrantyRepository.streamByUserIdOrderByExpiryDateAscIdAsc(userId)) {
+            for (Warranty warranty : (Iterable<Warranty>) warranties::iterator) {
+                out.write(objectMapper.writeValueAsBytes(mapToResponse(warranty, today)));
+                out.write(newline);
+            }
+        }
+        out.flush();
+    }
+
+    // ACTIVE or EXPIRING_SOON: expires today or later
     public List<WarrantyResponse> getActiveWarranties(String userId) {
-        return getUserWarranties(userId).stream()
-                .filter(w -> "ACTIVE".equals(w.getStatus()) || "EXPIRING_SOON".equals(w.getStatus()))
-                .collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+        return mapAll(warrantyRepository.findActive(userId, today), today);
     }
 
+    // EXPIRING_SOON: expires within the next 7 days
+    public List<WarrantyResponse> getExpiringSoonWarranties(String userId) {
+        LocalDate today = LocalDate.now();
+        return mapAll(warrantyRepository.findExpiringBetween(userId, today, today.plusDays(EXPIRING_SOON_DAYS)), today);
+    }
+
+    // EXPIRED: expiry date already passed
     public List<WarrantyResponse> getExpiredWarranties(String userId) {
-        return getUserWarranties(userId).stream()
-                .filter(w -> "EXPIRED".equals(w.getStatus()))
-                .collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+        return mapAll(warrantyRepository.findExpired(userId, today), today);
+    }
+
+    // Empty when the warranty does not exist, belongs to someone else or its image is gone
+    public Optional<ReceiptImage> getWarrantyImage(String warrantyId, String userId) throws IOException {
+        Optional<Warranty> found = warrantyRepository.findById(warrantyId)
+                .filter(warranty -> warranty.getUserId().equals(userId))
+                .filter(warranty -> warranty.getImagePath() != null);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Warranty warranty = found.get();
+        Path path = Paths.get(warranty.getImagePath());
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        // Warranties scanned before content hashes were stored get one on their first view. A targeted
+        // $set, so a read never rewrites the rest of the document under a concurrent update.
+        if (warranty.getContentHash() == null) {
+            warranty.setContentHash(hashFile(path));
+            warrantyRepository.setContentHashIfMissing(warranty.getId(), warranty.getContentHash());
+        }
+
+        return Optional.of(new ReceiptImage(path, Files.size(path), warranty.getContentHash()));
+    }
+
+    public WarrantySummaryResponse getSummary(String userId) {
+        return summaryService.getSummary(userId);
+    }
+
+    public List<WarrantyResponse> searchWarranties(String userId, String query, int limit) {
+        // Re-joined from our own tokens so quotes and '-' in the input are not read as $text operators
+        List<String> words = WarrantySearchIndex.tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        return mapAll(warrantyRepository.searchText(userId, String.join(" ", words), limit), LocalDate.now());
+    }
+
+    public List<WarrantySuggestion> autocompleteWarranties(String userId, String query, int limit) {
+        return searchIndex.autocomplete(userId, query, limit);
+    }
+
+    public Optional<Thumbnail> getWarrantyThumbnail(String warrantyId, String userId, int size) {
+        return warrantyRepository.findById(warrantyId)
+                .filter(warranty -> warranty.getUserId().equals(userId))
+                .filter(warranty -> warranty.getImagePath() != null)
+                .flatMap(warranty -> thumbnailService.getThumbnail(warranty, size));
     }
 
     public void deleteWarranty(String warrantyId, String userId) {
@@ -114,96 +400,100 @@ public class WarrantyService {
             throw new RuntimeException("Unauthorized to delete this warranty");
         }
 
-        // Delete image file
+        // Delete image file, unless a repeat upload of the same receipt still shares it
         try {
-            Files.deleteIfExists(Paths.get(warranty.getImagePath()));
+            if (!warrantyRepository.existsByImagePathAndIdNot(warranty.getImagePath(), warranty.getId())) {
+                Files.deleteIfExists(Paths.get(warranty.getImagePath()));
+                thumbnailService.deleteThumbnails(warranty.getImagePath());
+            }
         } catch (IOException e) {
             // Log error but continue with deletion
         }
 
         warrantyRepository.delete(warranty);
+        searchIndex.remove(userId, warranty.getId());
+        summaryService.onWarrantyRemoved(warranty);
+        walletVersionService.bump(userId);
     }
 
-    private void calculateWarrantyExpiry(Warranty warranty) {
+    // The helpers below are package-private so backend-benchmarks can measure them directly
+    void calculateWarrantyExpiry(Warranty warranty) {
         if (warranty.getInvoiceDate() == null || warranty.getWarrantyPeriod() == null) {
             warranty.setStatus("UNKNOWN");
             return;
         }
 
-        LocalDate invoiceDate = warranty.getInvoiceDate();
-        String warrantyPeriod = warranty.getWarrantyPeriod().toLowerCase();
-
-        LocalDate expiryDate = calculateExpiryDate(invoiceDate, warrantyPeriod);
+        LocalDate expiryDate = warrantyFieldParser.calculateExpiryDate(
+                warranty.getInvoiceDate(), warranty.getWarrantyPeriod());
         warranty.setExpiryDate(expiryDate);
 
-        LocalDate today = LocalDate.now();
-        long daysRemaining = ChronoUnit.DAYS.between(today, expiryDate);
+        long daysRemaining = ChronoUnit.DAYS.between(LocalDate.now(), expiryDate);
         warranty.setDaysRemaining(daysRemaining);
-
-        if (daysRemaining < 0) {
-            warranty.setStatus("EXPIRED");
-        } else if (daysRemaining <= 7) {
-            warranty.setStatus("EXPIRING_SOON");
-        } else {
-            warranty.setStatus("ACTIVE");
-        }
+        warranty.setStatus(statusFor(daysRemaining));
 
         warranty.setUpdatedAt(LocalDateTime.now());
     }
 
-    private LocalDate calculateExpiryDate(LocalDate invoiceDate, String warrantyPeriod) {
-        // Parse warranty period like "1 year", "6 months", "2 years"
-        String[] parts = warrantyPeriod.trim().split("\\s+");
-        if (parts.length >= 2) {
-            try {
-                int amount = Integer.parseInt(parts[0]);
-                String unit = parts[1].toLowerCase();
-
-                if (unit.startsWith("year")) {
-                    return invoiceDate.plusYears(amount);
-                } else if (unit.startsWith("month")) {
-                    return invoiceDate.plusMonths(amount);
-                } else if (unit.startsWith("day")) {
-                    return invoiceDate.plusDays(amount);
-                }
-            } catch (NumberFormatException e) {
-                // If parsing fails, default to 1 year
-            }
+    // Fills in the expiry date for documents stored before it was persisted; returns true if the document changed
+    private boolean backfillExpiryDate(Warranty warranty) {
+        if (warranty.getExpiryDate() != null
+                || warranty.getInvoiceDate() == null
+                || warranty.getWarrantyPeriod() == null) {
+            return false;
         }
 
-        // Default: 1 year warranty
-        return invoiceDate.plusYears(1);
+        calculateWarrantyExpiry(warranty);
+        return true;
     }
 
-    private LocalDate parseDate(String dateStr) {
-        // Try multiple date formats
-        String[] formats = {
-                "dd/MM/yyyy", "dd-MM-yyyy", "dd.MM.yyyy",
-                "yyyy/MM/dd", "yyyy-MM-dd", "yyyy.MM.dd",
-                "dd/MM/yy", "dd-MM-yy"
-        };
+    public static String statusFor(long daysRemaining) {
+        if (daysRemaining < 0) {
+            return "EXPIRED";
+        } else if (daysRemaining <= EXPIRING_SOON_DAYS) {
+            return "EXPIRING_SOON";
+        }
+        return "ACTIVE";
+    }
 
-        for (String format : formats) {
-            try {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-                LocalDate date = LocalDate.parse(dateStr, formatter);
+    // Fills priceMinor and priceCurrency from the OCR'd assetPrice text
+    void applyPrice(Warranty warranty) {
+        String currency = warrantyFieldParser.parseCurrency(warranty.getAssetPrice());
+        Long minorUnits = warrantyFieldParser.parseMinorUnits(warranty.getAssetPrice(), currency);
+        warranty.setPriceMinor(minorUnits);
+        warranty.setPriceCurrency(minorUnits == null ? null : currency);
+    }
 
-                // If year is parsed as 2-digit, adjust
-                if (date.getYear() < 100) {
-                    date = date.plusYears(2000);
-                }
+    private Timer stageTimer(String stage) {
+        return meterRegistry.timer("scan.stage", "stage", stage);
+    }
 
-                return date;
-            } catch (Exception e) {
-                // Try next format
-            }
+    private String hashFile(Path path) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
         }
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-        // If all formats fail, return today's date
-        return LocalDate.now();
+    private MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private List<WarrantyResponse> mapAll(List<Warranty> warranties, LocalDate today) {
+        return warranties.stream()
+                .map(warranty -> mapToResponse(warranty, today))
+                .collect(Collectors.toList());
     }
 
     private WarrantyResponse mapToResponse(Warranty warranty) {
+        return mapToResponse(warranty, LocalDate.now());
+    }
+
+    WarrantyResponse mapToResponse(Warranty warranty, LocalDate today) {
         WarrantyResponse response = new WarrantyResponse();
         response.setId(warranty.getId());
         response.setInvoiceNumber(warranty.getInvoiceNumber());
@@ -211,6 +501,8 @@ public class WarrantyService {
         response.setSerialNumber(warranty.getSerialNumber());
         response.setModelNumber(warranty.getModelNumber());
         response.setAssetPrice(warranty.getAssetPrice());
+        response.setPriceMinor(warranty.getPriceMinor());
+        response.setPriceCurrency(warranty.getPriceCurrency());
         response.setWarrantyPeriod(warranty.getWarrantyPeriod());
         response.setPaymentMethod(warranty.getPaymentMethod());
         response.setMerchantName(warranty.getMerchantName());
@@ -218,7 +510,17 @@ public class WarrantyService {
         response.setExpiryDate(warranty.getExpiryDate());
         response.setDaysRemaining(warranty.getDaysRemaining());
         response.setStatus(warranty.getStatus());
-        response.setImagePath(warranty.getImagePath());
+
+        // The stored status is a snapshot; derive the current one so reads never need a write
+        if (warranty.getExpiryDate() != null) {
+            long daysRemaining = ChronoUnit.DAYS.between(today, warranty.getExpiryDate());
+            response.setDaysRemaining(daysRemaining);
+            response.setStatus(statusFor(daysRemaining));
+        }
+        if (warranty.getImagePath() != null) {
+            response.setImageUrl("/api/warranties/" + warranty.getId() + "/image");
+            response.setThumbnailUrl("/api/warranties/" + warranty.getId() + "/thumbnail");
+        }
         return response;
     }
 }
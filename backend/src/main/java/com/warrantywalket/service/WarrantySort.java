@@ -0,0 +1,28 @@
+package com.warrantywalket.service;
+
+// Orders accepted by GET /api/warranties?sort=
+public enum WarrantySort {
+
+    EXPIRY("expiry"),
+    PRICE_ASC("price"),
+    PRICE_DESC("-price");
+
+    private final String param;
+
+    WarrantySort(String param) {
+        this.param = param;
+    }
+
+    public boolean isByPrice() {
+        return this != EXPIRY;
+    }
+
+    public static WarrantySort fromParam(String param) {
+        for (WarrantySort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + param);
+    }
+}
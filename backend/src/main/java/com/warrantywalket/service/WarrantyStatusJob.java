@@ -0,0 +1,157 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.JobRun;
+import com.warrantywalket.model.Warranty;
+import com.warrantywalket.repository.JobRunRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Moves stored warranty status across the EXPIRING_SOON and EXPIRED boundaries once a day, for all users.
+// Only expiry dates that crossed a boundary since the last completed run are touched, and every update
+// is guarded by "status != target", so a failed or repeated run can simply be started again.
+@Service
+public class WarrantyStatusJob {
+
+    public static final String JOB_ID = "warranty-status-rollover";
+
+    private static final Logger log = LoggerFactory.getLogger(WarrantyStatusJob.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @Autowired
+    private WarrantySummaryService summaryService;
+
+    @Autowired
+    private WalletVersionService walletVersionService;
+
+    // Number of one-day updateMany operations sent per bulk write
+    @Value("${warranty.status-job.chunk-days:31}")
+    private int chunkDays;
+
+    @Scheduled(cron = "${warranty.status-job.cron:0 5 0 * * *}")
+    public void runDaily() {
+        run(LocalDate.now());
+    }
+
+    // Catch up on days missed while the service was down
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        try {
+            run(LocalDate.now());
+        } catch (RuntimeException e) {
+            // Never block startup on the rollover; the daily run will retry
+            log.error("Warranty status catch-up failed", e);
+        }
+    }
+
+    public synchronized JobRun run(LocalDate today) {
+        JobRun jobRun = jobRunRepository.findById(JOB_ID).orElseGet(() -> new JobRun(JOB_ID));
+        LocalDate from = jobRun.getLastCompletedDate();
+
+        if (from != null && !from.isBefore(today)) {
+            return jobRun;
+        }
+
+        jobRun.setStatus("RUNNING");
+        jobRun.setStartedAt(LocalDateTime.now());
+        jobRun.setFinishedAt(null);
+        jobRun.setError(null);
+        jobRunRepository.save(jobRun);
+
+        long start = System.currentTimeMillis();
+        try {
+            long expired = markExpired(from, today);
+            long expiringSoon = markExpiringSoon(from, today);
+
+            // Status counts and "expiring this month" are relative to today. Part of the run, so a
+            // failure here leaves the day incomplete and the next run refreshes again.
+            summaryService.refreshAll(today);
+            walletVersionService.bumpAll();
+
+            jobRun.setStatus("COMPLETED");
+            jobRun.setLastCompletedDate(today);
+            jobRun.setExpiredCount(expired);
+            jobRun.setExpiringSoonCount(expiringSoon);
+
+            log.info("Warranty status rollover for {}: {} expired, {} expiring soon in {} ms",
+                    today, expired, expiringSoon, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            jobRun.setStatus("FAILED");
+            jobRun.setError(e.getMessage());
+            log.error("Warranty status rollover for {} failed", today, e);
+        } finally {
+            jobRun.setFinishedAt(LocalDateTime.now());
+            jobRun.setDurationMs(System.currentTimeMillis() - start);
+            jobRunRepository.save(jobRun);
+        }
+
+        return jobRun;
+    }
+
+    private long markExpired(LocalDate from, LocalDate today) {
+        if (from == null) {
+            // First run: everything already past its expiry date
+            Query query = Query.query(Criteria.where("expiryDate").lt(today).and("status").ne("EXPIRED"));
+            return mongoTemplate.updateMulti(query, statusUpdate("EXPIRED"), Warranty.class).getModifiedCount();
+        }
+        return updateByDay(from, today, "EXPIRED");
+    }
+
+    private long markExpiringSoon(LocalDate from, LocalDate today) {
+        LocalDate windowEnd = today.plusDays(WarrantyService.EXPIRING_SOON_DAYS + 1);
+
+        LocalDate windowStart = today;
+        if (from != null) {
+            LocalDate previousWindowEnd = from.plusDays(WarrantyService.EXPIRING_SOON_DAYS + 1);
+            if (previousWindowEnd.isAfter(today)) {
+                windowStart = previousWindowEnd;
+            }
+        }
+        return updateByDay(windowStart, windowEnd, "EXPIRING_SOON");
+    }
+
+    // One updateMany per expiry day in [start, end), sent as unordered bulk writes of chunkDays operations
+    private long updateByDay(LocalDate start, LocalDate end, String status) {
+        long modified = 0;
+        LocalDate day = start;
+
+        while (day.isBefore(end)) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Warranty.class);
+
+            for (int i = 0; i < chunkDays && day.isBefore(end); i++) {
+                Query query = Query.query(Criteria.where("expiryDate").gte(day).lt(day.plusDays(1))
+                        .and("status").ne(status));
+                bulk.updateMulti(query, statusUpdate(status));
+                day = day.plusDays(1);
+            }
+
+            modified += bulk.execute().getModifiedCount();
+        }
+
+        return modified;
+    }
+
+    private Update statusUpdate(String status) {
+        return new Update()
+                .set("status", status)
+                .set("updatedAt", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,215 @@
+package com.warrantywalket.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.warrantywalket.dto.WarrantySummaryResponse;
+import com.warrantywalket.model.MerchantCount;
+import com.warrantywalket.model.Warranty;
+import com.warrantywalket.model.WarrantySummary;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard numbers per user, computed by one aggregation over the user's warranties and kept in
+// warranty_summaries. Scans and deletes adjust the stored document with $inc; the daily status rollover
+// recomputes every stored summary, and a summary from an earlier day is recomputed when it is read.
+@Service
+public class WarrantySummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(WarrantySummaryService.class);
+
+    private static final String[] STATUSES = {"ACTIVE", "EXPIRING_SOON", "EXPIRED", "UNKNOWN"};
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WarrantyFieldParser warrantyFieldParser;
+
+    @Value("${summary.top-merchants:5}")
+    private int topMerchants;
+
+    public WarrantySummaryResponse getSummary(String userId) {
+        LocalDate today = LocalDate.now();
+        WarrantySummary summary = mongoTemplate.findById(userId, WarrantySummary.class);
+
+        if (summary == null || !today.equals(summary.getComputedFor())) {
+            summary = recompute(userId, today);
+        }
+        return toResponse(summary);
+    }
+
+    public void onWarrantyAdded(Warranty warranty) {
+        apply(warranty, 1);
+    }
+
+    public void onWarrantyRemoved(Warranty warranty) {
+        apply(warranty, -1);
+    }
+
+    // Called by the daily status rollover, once status buckets have moved on a day
+    public void refreshAll(LocalDate today) {
+        List<String> userIds = mongoTemplate.findDistinct(new Query(), "_id", WarrantySummary.class, String.class);
+        long start = System.currentTimeMillis();
+
+        for (String userId : userIds) {
+            try {
+                recompute(userId, today);
+            } catch (RuntimeException e) {
+                // Left stale; it is recomputed on the user's next read
+                log.error("Summary refresh for {} failed", userId, e);
+            }
+        }
+        log.info("Refreshed {} warranty summaries in {} ms", userIds.size(), System.currentTimeMillis() - start);
+    }
+
+    public WarrantySummary recompute(String userId, LocalDate today) {
+        LocalDate soonEnd = today.plusDays(WarrantyService.EXPIRING_SOON_DAYS);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate monthEnd = today.with(TemporalAdjusters.lastDayOfMonth());
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.facet(Aggregation.count().as("n")).as("total")
+                        .and(Aggregation.match(Criteria.where("expiryDate").gt(soonEnd)),
+                                Aggregation.count().as("n")).as("ACTIVE")
+                        .and(Aggregation.match(Criteria.where("expiryDate").gte(today).lte(soonEnd)),
+                                Aggregation.count().as("n")).as("EXPIRING_SOON")
+                        .and(Aggregation.match(Criteria.where("expiryDate").lt(today)),
+                                Aggregation.count().as("n")).as("EXPIRED")
+                        .and(Aggregation.match(Criteria.where("expiryDate").is(null)),
+                                Aggregation.count().as("n")).as("UNKNOWN")
+                        .and(Aggregation.match(Criteria.where("expiryDate").gte(monthStart).lte(monthEnd)),
+                                Aggregation.count().as("n")).as("expiringThisMonth")
+                        .and(Aggregation.match(Criteria.where("expiryDate").gte(today).and("priceMinor").ne(null)),
+                                Aggregation.group("priceCurrency").sum("priceMinor").as("value")).as("valueCovered")
+                        .and(Aggregation.match(Criteria.where("merchantName").ne(null)),
+                                Aggregation.group("merchantName").count().as("count"),
+                                Aggregation.sort(Sort.Direction.DESC, "count"))
+                        .as("merchants"));
+
+        Document result = mongoTemplate.aggregate(aggregation, Warranty.class, Document.class).getUniqueMappedResult();
+
+        WarrantySummary summary = new WarrantySummary(userId);
+        if (result != null) {
+            summary.setTotal(countOf(result, "total"));
+            for (String status : STATUSES) {
+                summary.getStatusCounts().put(status, countOf(result, status));
+            }
+            summary.setExpiringThisMonth(countOf(result, "expiringThisMonth"));
+
+            // Minor units are summed per currency and converted the same way apply() converts one warranty
+            double valueCovered = 0;
+            for (Document value : result.getList("valueCovered", Document.class)) {
+                valueCovered += majorUnits(((Number) value.get("value")).longValue(), value.getString("_id"));
+            }
+            summary.setValueCovered(valueCovered);
+
+            for (Document merchant : result.getList("merchants", Document.class)) {
+                summary.getMerchants().add(new MerchantCount(
+                        merchant.getString("_id"), ((Number) merchant.get("count")).longValue()));
+            }
+        }
+
+        summary.setComputedFor(today);
+        summary.setUpdatedAt(LocalDateTime.now());
+        return mongoTemplate.save(summary);
+    }
+
+    // Adjusts a summary computed for today; one from an earlier day (or none) is rebuilt on next read anyway
+    private void apply(Warranty warranty, int delta) {
+        LocalDate today = LocalDate.now();
+        LocalDate expiry = warranty.getExpiryDate();
+
+        String status = expiry == null
+                ? "UNKNOWN"
+                : WarrantyService.statusFor(ChronoUnit.DAYS.between(today, expiry));
+
+        Update update = new Update()
+                .inc("total", delta)
+                .inc("statusCounts." + status, delta)
+                .set("updatedAt", LocalDateTime.now());
+
+        if (expiry != null && !expiry.isBefore(today)) {
+            if (warranty.getPriceMinor() != null) {
+                update.inc("valueCovered", delta * majorUnits(warranty.getPriceMinor(), warranty.getPriceCurrency()));
+            }
+        }
+        if (expiry != null && expiry.getYear() == today.getYear() && expiry.getMonth() == today.getMonth()) {
+            update.inc("expiringThisMonth", delta);
+        }
+
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(warranty.getUserId()).and("computedFor").is(today)),
+                update, WarrantySummary.class);
+        if (result.getMatchedCount() == 0 || warranty.getMerchantName() == null) {
+            return;
+        }
+
+        String merchant = warranty.getMerchantName();
+        UpdateResult merchantResult = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(warranty.getUserId()).and("merchants.name").is(merchant)),
+                new Update().inc("merchants.$.count", delta),
+                WarrantySummary.class);
+
+        if (merchantResult.getMatchedCount() == 0 && delta > 0) {
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(warranty.getUserId())),
+                    new Update().push("merchants", new MerchantCount(merchant, delta)),
+                    WarrantySummary.class);
+        } else if (delta < 0) {
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(warranty.getUserId())),
+                    new Update().pull("merchants", new Document("count", new Document("$lte", 0))),
+                    WarrantySummary.class);
+        }
+    }
+
+    private WarrantySummaryResponse toResponse(WarrantySummary summary) {
+        WarrantySummaryResponse response = new WarrantySummaryResponse();
+        response.setTotal(summary.getTotal());
+
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (String status : STATUSES) {
+            statusCounts.put(status, summary.getStatusCounts().getOrDefault(status, 0L));
+        }
+        response.setStatusCounts(statusCounts);
+
+        response.setValueCovered(summary.getValueCovered());
+        response.setExpiringThisMonth(summary.getExpiringThisMonth());
+
+        // Incremental updates do not keep the array ordered, so sort on the way out
+        response.setTopMerchants(summary.getMerchants().stream()
+                .sorted((a, b) -> Long.compare(b.getCount(), a.getCount()))
+                .limit(topMerchants)
+                .toList());
+        response.setAsOf(summary.getComputedFor());
+        return response;
+    }
+
+    private double majorUnits(long minorUnits, String currency) {
+        return warrantyFieldParser.toMajorUnits(minorUnits,
+                currency != null ? currency : warrantyFieldParser.parseCurrency(null));
+    }
+
+    private long countOf(Document result, String facet) {
+        List<Document> counts = result.getList(facet, Document.class);
+        return counts.isEmpty() ? 0 : ((Number) counts.get(0).get("n")).longValue();
+    }
+}
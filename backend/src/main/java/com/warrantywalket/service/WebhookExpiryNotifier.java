@@ -0,0 +1,64 @@
+package com.warrantywalket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// POSTs each reminder as JSON to alerts.webhook.url; anything but a 2xx counts as a failed send
+@Component
+@ConditionalOnProperty(name = "alerts.notifier", havingValue = "webhook")
+public class WebhookExpiryNotifier implements ExpiryNotifier {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${alerts.webhook.url}")
+    private String url;
+
+    @Value("${alerts.webhook.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private HttpClient client;
+
+    @PostConstruct
+    public void start() {
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+
+    @Override
+    public void send(ExpiryReminder reminder) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(reminder)))
+                    .build();
+
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Webhook returned " + response.statusCode());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize reminder", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling the webhook", e);
+        }
+    }
+}
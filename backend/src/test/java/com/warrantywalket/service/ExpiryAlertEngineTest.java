@@ -0,0 +1,354 @@
+package com.warrantywalket.service;
+
+import com.warrantywalket.model.ExpiryAlert;
+import com.warrantywalket.model.User;
+import com.warrantywalket.model.Warranty;
+import com.warrantywalket.repository.ExpiryAlertRepository;
+import com.warrantywalket.repository.UserRepository;
+import com.warrantywalket.repository.WarrantyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs the engine against repositories backed by in-memory maps, which behave like the Mongo queries
+// they stand in for: keyset order over (expiryDate, _id), and claims unique by id.
+class ExpiryAlertEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    private final Map<String, Warranty> warranties = new ConcurrentHashMap<>();
+    private final Map<String, ExpiryAlert> alerts = new ConcurrentHashMap<>();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    private final List<ExpiryReminder> delivered = new ArrayList<>();
+    private int failuresLeft;
+    private int sendCalls;
+
+    private WarrantyRepository warrantyRepository;
+    private UserRepository userRepository;
+    private ExpiryAlertRepository expiryAlertRepository;
+    private int nextId;
+
+    @BeforeEach
+    void setUp() {
+        warrantyRepository = mock(WarrantyRepository.class);
+        when(warrantyRepository.findExpiringAfter(any(), any(), any(), anyInt())).thenAnswer(invocation ->
+                findExpiringAfter(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3)));
+        when(warrantyRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .filter(warranties::containsKey)
+                        .collect(Collectors.toSet()));
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsernameIn(anyCollection())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .map(users::get)
+                        .filter(user -> user != null)
+                        .collect(Collectors.toList()));
+
+        expiryAlertRepository = mock(ExpiryAlertRepository.class);
+        when(expiryAlertRepository.claim(any())).thenAnswer(invocation -> {
+            ExpiryAlert claim = invocation.getArgument(0);
+            return alerts.putIfAbsent(claim.getId(), claim) == null;
+        });
+        when(expiryAlertRepository.reclaimStale(anyString(), any())).thenAnswer(invocation -> {
+            ExpiryAlert claim = alerts.get(invocation.getArgument(0));
+            LocalDateTime staleBefore = invocation.getArgument(1);
+            synchronized (alerts) {
+                if (claim == null || !"SENDING".equals(claim.getStatus()) || !claim.getClaimedAt().isBefore(staleBefore)) {
+                    return false;
+                }
+                claim.setClaimedAt(LocalDateTime.now());
+                return true;
+            }
+        });
+        when(expiryAlertRepository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(alerts.get(invocation.getArgument(0))));
+        when(expiryAlertRepository.findSentIds(anyCollection())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .filter(id -> alerts.containsKey(id) && "SENT".equals(alerts.get(id).getStatus()))
+                        .collect(Collectors.toSet()));
+        doAnswer(invocation -> {
+            ExpiryAlert claim = alerts.get(invocation.getArgument(0));
+            claim.setStatus("SENT");
+            claim.setSentAt(LocalDateTime.now());
+            return null;
+        }).when(expiryAlertRepository).markSent(anyString());
+        doAnswer(invocation -> alerts.remove(invocation.getArgument(0)))
+                .when(expiryAlertRepository).deleteById(anyString());
+
+        users.put("alice", new User("alice", "alice@example.com", "secret"));
+        users.put("bob", new User("bob", "bob@example.com", "secret"));
+    }
+
+    @Test
+    void eachWarrantyGetsTheReminderForTheRangeItIsIn() {
+        Warranty in30 = addWarranty("alice", TODAY.plusDays(30));
+        Warranty in20 = addWarranty("alice", TODAY.plusDays(20));
+        Warranty in7 = addWarranty("bob", TODAY.plusDays(7));
+        Warranty in1 = addWarranty("bob", TODAY.plusDays(1));
+        addWarranty("bob", TODAY.plusDays(31));
+        addWarranty("bob", TODAY.minusDays(1));
+
+        assertEquals(4, newEngine(500, 10000).run(TODAY));
+
+        assertEquals(30, reminderFor(in30).getDaysBefore());
+        assertEquals(30, reminderFor(in20).getDaysBefore());
+        assertEquals(20, reminderFor(in20).getDaysRemaining());
+        assertEquals(7, reminderFor(in7).getDaysBefore());
+        assertEquals(1, reminderFor(in1).getDaysBefore());
+    }
+
+    @Test
+    void cursorsPickUpWarrantiesAsTheyComeIntoRange() {
+        Warranty warranty = addWarranty("alice", TODAY.plusDays(40));
+        ExpiryAlertEngine engine = newEngine(500, 10000);
+
+        assertEquals(0, engine.run(TODAY));
+        assertEquals(1, engine.run(TODAY.plusDays(10)));
+        assertEquals(0, engine.run(TODAY.plusDays(20)));
+        assertEquals(1, engine.run(TODAY.plusDays(33)));
+        assertEquals(1, engine.run(TODAY.plusDays(39)));
+
+        assertEquals(List.of(30, 7, 1), delivered.stream()
+                .filter(reminder -> reminder.getWarrantyId().equals(warranty.getId()))
+                .map(ExpiryReminder::getDaysBefore)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void smallBatchesAndAFullQueueStillReachEveryDueReminder() {
+        for (int i = 0; i < 7; i++) {
+            addWarranty("alice", TODAY.plusDays(10));
+        }
+
+        // Batches of 2 keep several warranties on the same expiry date apart, and the queue has to be
+        // drained and refilled to get through all of them
+        assertEquals(7, newEngine(2, 3).run(TODAY));
+        assertEquals(7, delivered.stream().map(ExpiryReminder::getWarrantyId).distinct().count());
+    }
+
+    @Test
+    void warrantyAddedBehindTheCursorIsStillReminded() {
+        ExpiryAlertEngine engine = newEngine(500, 10000);
+        engine.run(TODAY);
+
+        Warranty late = addWarranty("alice", TODAY.plusDays(25));
+        engine.onWarrantyAdded(late);
+
+        assertEquals(1, engine.run(TODAY));
+        assertEquals(30, reminderFor(late).getDaysBefore());
+    }
+
+    @Test
+    void warrantyDeletedWhileQueuedGetsNoReminder() {
+        Warranty warranty = addWarranty("alice", TODAY.plusDays(31));
+        ExpiryAlertEngine engine = newEngine(500, 10000);
+
+        // Loaded by the lookahead, due tomorrow
+        engine.run(TODAY);
+        warranties.remove(warranty.getId());
+
+        assertEquals(0, engine.run(TODAY.plusDays(1)));
+        assertEquals(0, delivered.size());
+    }
+
+    @Test
+    void sameDayRunTwiceSendsOnce() {
+        addWarranty("alice", TODAY.plusDays(7));
+        ExpiryAlertEngine engine = newEngine(500, 10000);
+
+        assertEquals(1, engine.run(TODAY));
+        assertEquals(0, engine.run(TODAY));
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    void reminderAlreadySentBeforeARestartIsSkipped() {
+        Warranty warranty = addWarranty("alice", TODAY.plusDays(7));
+        ExpiryAlert sent = new ExpiryAlert(warranty.getId(), "alice", 7, warranty.getExpiryDate());
+        sent.setStatus("SENT");
+        alerts.put(sent.getId(), sent);
+
+        assertEquals(0, newEngine(500, 10000).run(TODAY));
+        assertEquals(0, delivered.size());
+    }
+
+    @Test
+    void twoInstancesSharingTheClaimsSendEachReminderOnce() {
+        for (int i = 0; i < 5; i++) {
+            addWarranty(i % 2 == 0 ? "alice" : "bob", TODAY.plusDays(8));
+        }
+        ExpiryAlertEngine first = newEngine(500, 10000);
+        ExpiryAlertEngine second = newEngine(500, 10000);
+
+        // Both send the 30-day reminders and load tomorrow's 7-day ones through the lookahead
+        int sent = first.run(TODAY) + second.run(TODAY);
+        sent += first.run(TODAY.plusDays(1)) + second.run(TODAY.plusDays(1));
+
+        assertEquals(10, sent);
+        assertEquals(10, delivered.size());
+        assertEquals(10, delivered.stream()
+                .map(reminder -> ExpiryAlert.idFor(reminder.getWarrantyId(), reminder.getDaysBefore()))
+                .distinct()
+                .count());
+    }
+
+    @Test
+    void failedSendReleasesTheClaimAndIsRetried() {
+        Warranty warranty = addWarranty("alice", TODAY.plusDays(7));
+        ExpiryAlertEngine engine = newEngine(500, 10000);
+        failuresLeft = 1;
+
+        assertEquals(0, engine.run(TODAY));
+        assertNull(alerts.get(ExpiryAlert.idFor(warranty.getId(), 7)));
+
+        assertEquals(1, engine.run(TODAY));
+        assertEquals("SENT", alerts.get(ExpiryAlert.idFor(warranty.getId(), 7)).getStatus());
+        assertEquals(2, sendCalls);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        addWarranty("alice", TODAY.plusDays(7));
+        ExpiryAlertEngine engine = newEngine(500, 10000);
+        failuresLeft = Integer.MAX_VALUE;
+
+        for (int i = 0; i < 5; i++) {
+            engine.run(TODAY);
+        }
+
+        assertEquals(3, sendCalls);
+        assertEquals(0, delivered.size());
+    }
+
+    @Test
+    void staleSendingClaimIsTakenOver() {
+        Warranty warranty = addWarranty("alice", TODAY.plusDays(7));
+        ExpiryAlert crashed = new ExpiryAlert(warranty.getId(), "alice", 7, warranty.getExpiryDate());
+        crashed.setClaimedAt(LocalDateTime.now().minusHours(1));
+        alerts.put(crashed.getId(), crashed);
+
+        assertEquals(1, newEngine(500, 10000).run(TODAY));
+        assertEquals("SENT", alerts.get(crashed.getId()).getStatus());
+    }
+
+    @Test
+    void freshSendingClaimIsHeldUntilItGoesStale() {
+        Warranty warranty = addWarranty("alice", TODAY.plusDays(7));
+        ExpiryAlert inFlight = new ExpiryAlert(warranty.getId(), "alice", 7, warranty.getExpiryDate());
+        alerts.put(inFlight.getId(), inFlight);
+        ExpiryAlertEngine engine = newEngine(500, 10000);
+
+        assertEquals(0, engine.run(TODAY));
+        assertEquals(0, sendCalls);
+
+        // Its sender never finished
+        inFlight.setClaimedAt(LocalDateTime.now().minusHours(1));
+
+        assertEquals(1, engine.run(TODAY));
+        assertEquals("SENT", alerts.get(inFlight.getId()).getStatus());
+    }
+
+    @Test
+    void emailsAreLoadedOncePerBatch() {
+        addWarranty("alice", TODAY.plusDays(7));
+        addWarranty("alice", TODAY.plusDays(6));
+        addWarranty("bob", TODAY.plusDays(5));
+        addWarranty("carol", TODAY.plusDays(4));
+
+        assertEquals(4, newEngine(500, 10000).run(TODAY));
+
+        verify(userRepository, times(1)).findByUsernameIn(anyCollection());
+        verify(userRepository, never()).findByUsername(anyString());
+        Map<String, List<String>> emails = delivered.stream().collect(Collectors.groupingBy(
+                ExpiryReminder::getUserId,
+                Collectors.mapping(reminder -> String.valueOf(reminder.getEmail()), Collectors.toList())));
+        assertEquals(List.of("alice@example.com", "alice@example.com"), emails.get("alice"));
+        assertEquals(List.of("bob@example.com"), emails.get("bob"));
+        assertEquals(List.of("null"), emails.get("carol"));
+    }
+
+    private ExpiryAlertEngine newEngine(int batchSize, int queueCapacity) {
+        ExpiryAlertEngine engine = new ExpiryAlertEngine();
+        ReflectionTestUtils.setField(engine, "warrantyRepository", warrantyRepository);
+        ReflectionTestUtils.setField(engine, "userRepository", userRepository);
+        ReflectionTestUtils.setField(engine, "expiryAlertRepository", expiryAlertRepository);
+        ReflectionTestUtils.setField(engine, "notifier", (ExpiryNotifier) this::send);
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "daysBefore", new int[]{1, 30, 7});
+        ReflectionTestUtils.setField(engine, "lookaheadDays", 1);
+        ReflectionTestUtils.setField(engine, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(engine, "batchSize", batchSize);
+        ReflectionTestUtils.setField(engine, "maxAttempts", 3);
+        ReflectionTestUtils.setField(engine, "claimTimeoutMs", 600000L);
+        engine.start();
+        return engine;
+    }
+
+    private void send(ExpiryReminder reminder) {
+        sendCalls++;
+        if (failuresLeft > 0) {
+            failuresLeft--;
+            throw new IllegalStateException("Webhook returned 503");
+        }
+        delivered.add(reminder);
+    }
+
+    private Warranty addWarranty(String userId, LocalDate expiryDate) {
+        Warranty warranty = new Warranty(userId);
+        // Fixed-width hex, so ids sort like ObjectIds
+        warranty.setId(String.format("%024x", ++nextId));
+        warranty.setProductName("Product " + nextId);
+        warranty.setExpiryDate(expiryDate);
+        warranties.put(warranty.getId(), warranty);
+        return warranty;
+    }
+
+    private List<Warranty> findExpiringAfter(LocalDate afterExpiryDate, String afterId, LocalDate through, int limit) {
+        return warranties.values().stream()
+                .filter(warranty -> warranty.getExpiryDate() != null && !warranty.getExpiryDate().isAfter(through))
+                .filter(warranty -> {
+                    int byDate = warranty.getExpiryDate().compareTo(afterExpiryDate);
+                    return byDate > 0 || (byDate == 0 && afterId != null && warranty.getId().compareTo(afterId) > 0);
+                })
+                .sorted(Comparator.comparing(Warranty::getExpiryDate).thenComparing(Warranty::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private ExpiryReminder reminderFor(Warranty warranty) {
+        List<ExpiryReminder> reminders = delivered.stream()
+                .filter(reminder -> reminder.getWarrantyId().equals(warranty.getId()))
+                .collect(Collectors.toList());
+        assertEquals(1, reminders.size(), "reminders for " + warranty.getExpiryDate());
+        return reminders.get(0);
+    }
+}
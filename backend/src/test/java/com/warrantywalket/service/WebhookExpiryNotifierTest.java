@@ -0,0 +1,98 @@
+package com.warrantywalket.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A JDK HttpServer on a free local port stands in for the webhook
+class WebhookExpiryNotifierTest {
+
+    // Configured like the ObjectMapper Spring Boot provides
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private HttpServer server;
+    private WebhookExpiryNotifier notifier;
+
+    private volatile int status = 204;
+    private volatile String method;
+    private volatile String contentType;
+    private volatile String body;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/hooks/expiry", exchange -> {
+            method = exchange.getRequestMethod();
+            contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+
+        notifier = new WebhookExpiryNotifier();
+        ReflectionTestUtils.setField(notifier, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(notifier, "url",
+                "http://localhost:" + server.getAddress().getPort() + "/hooks/expiry");
+        ReflectionTestUtils.setField(notifier, "timeoutMs", 5000L);
+        notifier.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void postsTheReminderAsJson() throws IOException {
+        notifier.send(reminder());
+
+        assertEquals("POST", method);
+        assertEquals("application/json", contentType);
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals("alice", json.get("userId").asText());
+        assertEquals("alice@example.com", json.get("email").asText());
+        assertEquals("65f0c0ffee0000000000abcd", json.get("warrantyId").asText());
+        assertEquals("Espresso machine", json.get("productName").asText());
+        assertEquals("2026-03-08", json.get("expiryDate").asText());
+        assertEquals(7, json.get("daysRemaining").asLong());
+        assertEquals(7, json.get("daysBefore").asInt());
+    }
+
+    @Test
+    void non2xxResponseFailsTheSend() {
+        status = 503;
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> notifier.send(reminder()));
+        assertEquals("Webhook returned 503", e.getMessage());
+    }
+
+    private ExpiryReminder reminder() {
+        ExpiryReminder reminder = new ExpiryReminder();
+        reminder.setUserId("alice");
+        reminder.setEmail("alice@example.com");
+        reminder.setWarrantyId("65f0c0ffee0000000000abcd");
+        reminder.setProductName("Espresso machine");
+        reminder.setMerchantName("Kitchen Co");
+        reminder.setExpiryDate(LocalDate.of(2026, 3, 8));
+        reminder.setDaysRemaining(7);
+        reminder.setDaysBefore(7);
+        return reminder;
+    }
+}
@@ -19,6 +19,7 @@ import {
     Settings as SettingsIcon,
     Logout,
 } from '@mui/icons-material';
+import { authAPI } from '../services/api';
 
 const Sidebar = () => {
     const navigate = useNavigate();
@@ -33,6 +34,12 @@ const Sidebar = () => {
     ];
 
     const handleLogout = () => {
+        // Revoke the token server-side; logging out locally must not wait on it. The token is read first,
+        // since the request is only built after the stored user is gone.
+        const { token } = JSON.parse(localStorage.getItem('user') || '{}');
+        if (token) {
+            authAPI.logout(token).catch(() => {});
+        }
         localStorage.removeItem('user');
         navigate('/login');
     };
@@ -17,11 +17,22 @@ import WarrantyCard from '../components/WarrantyCard';
 import UploadDialog from '../components/UploadDialog';
 import { warrantyAPI } from '../services/api';
 
+const PAGE_SIZE = 24;
+
+// Status tabs load their own lists, so "All" never has to hold the whole wallet to be filtered
+const STATUS_LISTS = {
+    1: () => warrantyAPI.getActiveWarranties(),
+    2: () => warrantyAPI.getExpiringSoonWarranties(),
+    3: () => warrantyAPI.getExpiredWarranties(),
+};
+
 const Dashboard = () => {
     const navigate = useNavigate();
     const [warranties, setWarranties] = useState([]);
-    const [filteredWarranties, setFilteredWarranties] = useState([]);
+    const [summary, setSummary] = useState(null);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [uploadDialogOpen, setUploadDialogOpen] = useState(false);
     const [tabValue, setTabValue] = useState(0);
 
@@ -31,18 +42,36 @@ const Dashboard = () => {
             navigate('/login');
             return;
         }
-        fetchWarranties();
+        fetchSummary();
     }, [navigate]);
 
     useEffect(() => {
-        filterWarranties();
-    }, [warranties, tabValue]);
+        if (localStorage.getItem('user')) {
+            fetchWarranties();
+        }
+    }, [tabValue]);
+
+    const fetchSummary = async () => {
+        try {
+            const response = await warrantyAPI.getSummary();
+            setSummary(response.data);
+        } catch (error) {
+            console.error('Failed to fetch summary:', error);
+        }
+    };
 
     const fetchWarranties = async () => {
         try {
             setLoading(true);
-            const response = await warrantyAPI.getAllWarranties();
-            setWarranties(response.data);
+            if (STATUS_LISTS[tabValue]) {
+                const response = await STATUS_LISTS[tabValue]();
+                setWarranties(response.data);
+                setNextCursor(null);
+            } else {
+                const response = await warrantyAPI.getWarrantiesPage({ limit: PAGE_SIZE });
+                setWarranties(response.data.items);
+                setNextCursor(response.data.nextCursor);
+            }
         } catch (error) {
             console.error('Failed to fetch warranties:', error);
         } finally {
@@ -50,47 +79,43 @@ const Dashboard = () => {
         }
     };
 
-    const filterWarranties = () => {
-        let filtered = warranties;
-
-        switch (tabValue) {
-            case 0: // All
-                filtered = warranties;
-                break;
-            case 1: // Active
-                filtered = warranties.filter(w => w.status === 'ACTIVE');
-                break;
-            case 2: // Expiring Soon
-                filtered = warranties.filter(w => w.status === 'EXPIRING_SOON');
-                break;
-            case 3: // Expired
-                filtered = warranties.filter(w => w.status === 'EXPIRED');
-                break;
-            default:
-                filtered = warranties;
+    const loadMore = async () => {
+        try {
+            setLoadingMore(true);
+            const response = await warrantyAPI.getWarrantiesPage({ limit: PAGE_SIZE, cursor: nextCursor });
+            setWarranties(prev => [...prev, ...response.data.items]);
+            setNextCursor(response.data.nextCursor);
+        } catch (error) {
+            console.error('Failed to fetch warranties:', error);
+        } finally {
+            setLoadingMore(false);
         }
+    };
 
-        setFilteredWarranties(filtered);
+    const refresh = () => {
+        fetchSummary();
+        fetchWarranties();
     };
 
     const handleUploadSuccess = () => {
         setUploadDialogOpen(false);
-        fetchWarranties();
+        refresh();
     };
 
     const handleDelete = async (id) => {
         try {
             await warrantyAPI.deleteWarranty(id);
-            fetchWarranties();
+            refresh();
         } catch (error) {
             console.error('Failed to delete warranty:', error);
         }
     };
 
-    // Calculate statistics
-    const totalAssets = warranties.reduce((sum, w) => sum + (parseFloat(w.assetPrice) || 0), 0);
-    const expiringSoonCount = warranties.filter(w => w.status === 'EXPIRING_SOON').length;
-    const activeCount = warranties.filter(w => w.status === 'ACTIVE').length;
+    // Statistics come from the server-side summary
+    const statusCounts = summary?.statusCounts || {};
+    const totalAssets = summary?.valueCovered || 0;
+    const expiringSoonCount = statusCounts.EXPIRING_SOON || 0;
+    const activeCount = statusCounts.ACTIVE || 0;
 
     return (
         <Box sx={{ display: 'flex', minHeight: '100vh' }}>
@@ -166,10 +191,10 @@ const Dashboard = () => {
                                 },
                             }}
                         >
-                            <Tab label={`All Warranties (${warranties.length})`} />
-                            <Tab label={`Active (${warranties.filter(w => w.status === 'ACTIVE').length})`} />
-                            <Tab label={`Expiring Soon (${warranties.filter(w => w.status === 'EXPIRING_SOON').length})`} />
-                            <Tab label={`Expired (${warranties.filter(w => w.status === 'EXPIRED').length})`} />
+                            <Tab label={`All Warranties (${summary?.total ?? 0})`} />
+                            <Tab label={`Active (${activeCount})`} />
+                            <Tab label={`Expiring Soon (${expiringSoonCount})`} />
+                            <Tab label={`Expired (${statusCounts.EXPIRED || 0})`} />
                         </Tabs>
                     </Box>
 
@@ -207,7 +232,7 @@ const Dashboard = () => {
                         </Box>
                     ) : (
                         <Grid container spacing={3}>
-                            {filteredWarranties.length === 0 ? (
+                            {warranties.length === 0 ? (
                                 <Grid item xs={12}>
                                     <Box
                                         sx={{
@@ -243,12 +268,27 @@ const Dashboard = () => {
                                     </Box>
                                 </Grid>
                             ) : (
-                                filteredWarranties.map((warranty) => (
+                                warranties.map((warranty) => (
                                     <Grid item xs={12} sm={6} md={4} key={warranty.id}>
                                         <WarrantyCard warranty={warranty} onDelete={handleDelete} />
                                     </Grid>
                                 ))
                             )}
+                            {nextCursor && (
+                                <Grid item xs={12} sx={{ textAlign: 'center' }}>
+                                    <Button
+                                        variant="outlined"
+                                        onClick={loadMore}
+                                        disabled={loadingMore}
+                                        sx={{
+                                            color: 'var(--primary-terracotta)',
+                                            borderColor: 'var(--primary-terracotta)',
+                                        }}
+                                    >
+                                        {loadingMore ? 'Loading...' : 'Load more'}
+                                    </Button>
+                                </Grid>
+                            )}
                         </Grid>
                     )}
                 </Box>
@@ -37,6 +37,10 @@ api.interceptors.response.use(
 export const authAPI = {
     signup: (data) => api.post('/auth/signup', data),
     login: (data) => api.post('/auth/login', data),
+    // The token is passed in because the caller clears the stored user before the request interceptor runs
+    logout: (token) => api.post('/auth/logout', null, {
+        headers: { Authorization: `Bearer ${token}` },
+    }),
 };
 // Warranty APIs
 export const warrantyAPI = {
@@ -45,10 +49,32 @@ export const warrantyAPI = {
         formData.append('file', file);
         return api.post('/warranties/scan', formData);
     },
+    scanBillAsync: (file) => {
+        const formData = new FormData();
+        formData.append('file', file);
+        return api.post('/warranties/scan', formData, { params: { async: true } });
+    },
+    getScanJob: (jobId) => api.get(`/warranties/scan/${jobId}`),
+    scanBills: (files) => {
+        const formData = new FormData();
+        files.forEach((file) => formData.append('files', file));
+        return api.post('/warranties/scan/batch', formData);
+    },
     getAllWarranties: () => api.get('/warranties'),
+    getWarrantiesPage: ({ limit, cursor } = {}) => api.get('/warranties', { params: { limit, cursor } }),
+    getWarrantiesByPrice: ({ minPrice, maxPrice, sort = 'price' } = {}) =>
+        api.get('/warranties', { params: { minPrice, maxPrice, sort } }),
     getActiveWarranties: () => api.get('/warranties/active'),
+    getExpiringSoonWarranties: () => api.get('/warranties/expiring-soon'),
     getExpiredWarranties: () => api.get('/warranties/expired'),
+    getSummary: () => api.get('/warranties/summary'),
+    searchWarranties: (q, limit) => api.get('/warranties/search', { params: { q, limit } }),
+    autocompleteWarranties: (q, limit) => api.get('/warranties/search/autocomplete', { params: { q, limit } }),
     deleteWarranty: (id) => api.delete(`/warranties/${id}`),
+    getWarrantyImage: (id, config = {}) =>
+        api.get(`/warranties/${id}/image`, { responseType: 'blob', ...config }),
+    getWarrantyThumbnail: (id, size) =>
+        api.get(`/warranties/${id}/thumbnail`, { responseType: 'blob', params: { size } }),
 };
 
 export default api;
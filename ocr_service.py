@@ -72,14 +72,16 @@ def extract_warranty_details(text):
     
     # 6. Extract Warranty Period
     warranty_patterns = [
-        r'warranty\s*:?\s*(\d+)\s*(month|year|months|years)',
-        r'(\d+)\s*(month|year|months|years)\s*warranty'
+        r'warranty\s*:?\s*(\d+)\s*(years|year|yrs|yr|months|month|mos|mo|days|day)\b',
+        r'(\d+)\s*(years|year|yrs|yr|months|month|mos|mo|days|day)\s*warranty'
     ]
     for pattern in warranty_patterns:
         match = re.search(pattern, text_lower)
         if match:
             data['warranty_period'] = f"{match.group(1)} {match.group(2)}"
             break
+    if 'warranty_period' not in data and re.search(r'lifetime\s*warranty|warranty\s*:?\s*lifetime', text_lower):
+        data['warranty_period'] = 'lifetime'
     
     # 7. Extract Payment Method
     payment_keywords = ['cash', 'card', 'credit card', 'debit card', 'upi', 'online', 'net banking']
@@ -118,43 +120,90 @@ def extract_warranty_details(text):
     
     return data
 
+def process_image(image_path, normalized=False):
+    # Open the image
+    img = Image.open(image_path)
+
+    # Images normalized by the backend are already grayscale and sized for OCR
+    if not normalized:
+        # Resize to increase resolution (double size)
+        img = img.resize((img.width * 2, img.height * 2), Image.LANCZOS)
+
+        # Convert to grayscale for better OCR
+        img = img.convert('L')
+
+    # Apply a filter to enhance contrast
+    img = img.filter(ImageFilter.MedianFilter())
+
+    # Use pytesseract with configuration for better text extraction
+    custom_config = r'--oem 3 --psm 3'
+    text = pytesseract.image_to_string(img, config=custom_config)
+
+    # Filter out separator lines (lines consisting only of asterisks)
+    lines = text.split('\n')
+    filtered_lines = [line for line in lines if not re.match(r'^[*]+$', line.strip())]
+    filtered_text = '\n'.join(filtered_lines)
+
+    # Extract warranty details
+    return extract_warranty_details(filtered_text)
+
+def respond(message):
+    sys.stdout.write(json.dumps(message) + '\n')
+    sys.stdout.flush()
+
+def serve():
+    # Long-lived worker mode: one JSON request per stdin line, one JSON response per stdout line.
+    # Requests look like {"id": 1, "image_path": "...", "normalized": true} or {"id": 1, "op": "ping"}.
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
+
+        try:
+            request = json.loads(line)
+        except ValueError:
+            respond({"error": "Malformed request"})
+            continue
+
+        request_id = request.get("id")
+
+        if request.get("op") == "ping":
+            respond({"id": request_id, "ok": True})
+            continue
+
+        image_path = request.get("image_path")
+        try:
+            result = process_image(image_path, request.get("normalized", False))
+            respond({"id": request_id, "result": result})
+        except FileNotFoundError:
+            respond({"id": request_id, "error": f"Image file not found: {image_path}"})
+        except Exception as e:
+            respond({"id": request_id, "error": str(e)})
+
 def main():
     if len(sys.argv) < 2:
         error_response = {"error": "No image path provided"}
         print(json.dumps(error_response))
         sys.exit(1)
-    
-    image_path = sys.argv[1]
-    
+
+    if sys.argv[1] == "--serve":
+        serve()
+        sys.exit(0)
+
+    normalized = sys.argv[1] == "--normalized"
+    if normalized and len(sys.argv) < 3:
+        print(json.dumps({"error": "No image path provided"}))
+        sys.exit(1)
+
+    image_path = sys.argv[2] if normalized else sys.argv[1]
+
     try:
-        # Open the image
-        img = Image.open(image_path)
-        
-        # Resize to increase resolution (double size)
-        img = img.resize((img.width * 2, img.height * 2), Image.LANCZOS)
-        
-        # Convert to grayscale for better OCR
-        img = img.convert('L')
-        
-        # Apply a filter to enhance contrast
-        img = img.filter(ImageFilter.MedianFilter())
-        
-        # Use pytesseract with configuration for better text extraction
-        custom_config = r'--oem 3 --psm 3'
-        text = pytesseract.image_to_string(img, config=custom_config)
-        
-        # Filter out separator lines (lines consisting only of asterisks)
-        lines = text.split('\n')
-        filtered_lines = [line for line in lines if not re.match(r'^[*]+$', line.strip())]
-        filtered_text = '\n'.join(filtered_lines)
-        
-        # Extract warranty details
-        extracted_data = extract_warranty_details(filtered_text)
-        
+        extracted_data = process_image(image_path, normalized)
+
         # Output as JSON
         print(json.dumps(extracted_data))
         sys.exit(0)
-        
+
     except FileNotFoundError:
         error_response = {"error": f"Image file not found: {image_path}"}
         print(json.dumps(error_response))